@@ -0,0 +1,51 @@
+package org.assignment.crm.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String DASHBOARD_REPORT = "dashboardReport";
+    public static final String CUSTOMER_ACTIVITY_REPORTS = "customerActivityReports";
+    public static final String SALES_TRENDS_REPORTS = "salesTrendsReports";
+    public static final String DASHBOARD_SNAPSHOTS = "dashboardSnapshots";
+    public static final String DASHBOARD_TILES = "dashboardTiles";
+
+    @Value("${crm.dashboard.snapshot-ttl:10s}")
+    private Duration dashboardSnapshotTtl = Duration.ofSeconds(10);
+
+    @Value("${crm.dashboard.snapshot-max-entries:10000}")
+    private long dashboardSnapshotMaxEntries = 10000;
+
+    @Value("${crm.dashboard.tiles.stale-ttl:10m}")
+    private Duration dashboardTileStaleTtl = Duration.ofMinutes(10);
+
+    // Login dashboards are keyed by data version instead of being evicted on writes; the short TTL just retires superseded entries.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> dashboardSnapshotCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(DASHBOARD_SNAPSHOTS, Caffeine.newBuilder()
+                .expireAfterWrite(dashboardSnapshotTtl)
+                .maximumSize(dashboardSnapshotMaxEntries)
+                .recordStats()
+                .build());
+    }
+
+    // Last value each dashboard tile produced, shown marked as stale when a fresh computation misses its budget.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> dashboardTileCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(DASHBOARD_TILES, Caffeine.newBuilder()
+                .expireAfterWrite(dashboardTileStaleTtl)
+                .maximumSize(dashboardSnapshotMaxEntries)
+                .recordStats()
+                .build());
+    }
+}
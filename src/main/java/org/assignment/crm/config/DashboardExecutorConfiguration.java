@@ -0,0 +1,67 @@
+package org.assignment.crm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class DashboardExecutorConfiguration {
+
+    public static final String DASHBOARD_TILE_EXECUTOR = "dashboardTileExecutor";
+    public static final String DASHBOARD_STREAM_EXECUTOR = "dashboardStreamExecutor";
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardExecutorConfiguration.class);
+
+    @Autowired
+    private ReadYourWritesTaskDecorator readYourWritesTaskDecorator;
+
+    @Value("${crm.dashboard.tiles.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${crm.dashboard.tiles.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${crm.dashboard.stream.workers:2}")
+    private int streamWorkers;
+
+    @Value("${crm.dashboard.stream.max-subscribers:500}")
+    private int maxSubscribers;
+
+    // Aborts instead of running on the caller when full: a shed tile is reported as stale or pending rather than
+    // stalling the request thread past every tile budget. Tiles run with the request's attributes, so they route the
+    // way the request itself would.
+    @Bean(name = DASHBOARD_TILE_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardTileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-tile-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(readYourWritesTaskDecorator);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        logger.info("Dashboard tile executor uses {} threads with a queue of {}", maxConcurrency, queueCapacity);
+        return executor;
+    }
+
+    // Each subscriber has at most one drain task queued or running, so a queue sized to the subscriber cap never
+    // rejects work for a subscriber that is still registered.
+    @Bean(name = DASHBOARD_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor dashboardStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-stream-");
+        executor.setCorePoolSize(streamWorkers);
+        executor.setMaxPoolSize(streamWorkers);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        logger.info("Dashboard stream executor uses {} threads for up to {} subscribers", streamWorkers, maxSubscribers);
+        return executor;
+    }
+}
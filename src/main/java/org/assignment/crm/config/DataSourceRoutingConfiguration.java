@@ -0,0 +1,76 @@
+package org.assignment.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Only active when a replica is configured; otherwise Spring Boot's single spring.datasource pool is used as before.
+// The two pools are beans so they are closed on shutdown, but not autowire candidates: everything that injects a
+// DataSource, including JPA and Flyway, gets the routing one.
+@Configuration
+@ConditionalOnProperty(name = "crm.datasource.replica.url")
+public class DataSourceRoutingConfiguration {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRoutingConfiguration.class);
+
+    @Value("${crm.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${crm.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${crm.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${crm.datasource.replica.max-lag:5s}")
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    @Value("${crm.datasource.replica.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    @Bean(name = PRIMARY_DATA_SOURCE, defaultCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("crm-primary");
+        return dataSource;
+    }
+
+    @Bean(name = REPLICA_DATA_SOURCE, defaultCandidate = false)
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("crm-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Qualifier(REPLICA_DATA_SOURCE) DataSource replica) {
+        return new ReplicaLagGuard(replica, lagQuery, maxLag);
+    }
+
+    @Bean
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                 ReplicaLagGuard lagGuard) {
+        logger.info("Routing read-only transactions to the replica while it lags by at most {}s", maxLag.toSeconds());
+        return ReadWriteRoutingDataSource.wrap(primary, replica, lagGuard);
+    }
+}
@@ -0,0 +1,17 @@
+package org.assignment.crm.config;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+
+    // Serialising an entity never triggers a lazy load: associations the service did not fetch are written as {"id": ...}.
+    // Whatever a response needs in full is fetched up front through the repository entity graphs.
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        return new Hibernate6Module()
+                .enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+}
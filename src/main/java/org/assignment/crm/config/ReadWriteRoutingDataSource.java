@@ -0,0 +1,63 @@
+package org.assignment.crm.config;
+
+import org.assignment.crm.enums.DataSourceRole;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends @Transactional(readOnly = true) work to the replica and everything else to the primary. The read-only flag is
+// only known once the transaction has started, so this must sit behind a LazyConnectionDataSourceProxy (see wrap),
+// which defers picking a target until the first statement runs. Recomputes (see ReadYourWrites.recompute) also stay on
+// the primary until the replica has caught up with the last commit routed here.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static DataSource wrap(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagGuard));
+    }
+
+    @Override
+    protected DataSourceRole determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.pinToPrimary();
+            recordCommit();
+            return DataSourceRole.PRIMARY;
+        }
+        if (ReadYourWrites.isPinnedToPrimary() || !lagGuard.isReplicaUsable()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (ReadYourWrites.isRecomputing() && !lagGuard.hasReplicatedLastCommit()) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    private void recordCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lagGuard.recordCommit();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagGuard.recordCommit();
+            }
+        });
+    }
+}
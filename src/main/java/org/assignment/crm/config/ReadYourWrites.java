@@ -0,0 +1,70 @@
+package org.assignment.crm.config;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.Supplier;
+
+// Keeps the rest of an HTTP request on the primary once it has written, so it never reads a replica that has not caught
+// up with its own change. Clients can ask for the same on a request that follows their write with the header below.
+// The flag lives in the request attributes, so it ends with the request and never sticks to pooled worker threads;
+// ReadYourWritesTaskDecorator carries the attributes onto the executors that do part of a request's reads.
+public final class ReadYourWrites {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private static final String ATTRIBUTE = ReadYourWrites.class.getName() + ".pinned";
+
+    private static final ThreadLocal<Boolean> RECOMPUTING = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            try {
+                attributes.setAttribute(ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            } catch (IllegalStateException e) {
+                // A task that outlived its request; there is no later read in that request left to pin.
+            }
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        try {
+            if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+                return true;
+            }
+        } catch (IllegalStateException e) {
+            // The request has ended under a task that outlived it, so whether it wrote can no longer be read.
+            return true;
+        }
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                && Boolean.parseBoolean(servletAttributes.getRequest().getHeader(HEADER));
+    }
+
+    // For work whose result outlives the call: cache fills after an eviction or data version bump, and KPI rebuilds.
+    // Their reads stay on the primary until the replica has applied this node's last commit, so a recompute never
+    // stores figures from before the write that triggered it.
+    public static <T> T recompute(Supplier<T> computation) {
+        Boolean outer = RECOMPUTING.get();
+        RECOMPUTING.set(Boolean.TRUE);
+        try {
+            return computation.get();
+        } finally {
+            if (outer == null) {
+                RECOMPUTING.remove();
+            }
+        }
+    }
+
+    public static boolean isRecomputing() {
+        return RECOMPUTING.get() != null;
+    }
+}
@@ -0,0 +1,38 @@
+package org.assignment.crm.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// Runs a task with the submitting thread's request attributes and recompute flag, so reads a request hands to a worker
+// route the same way as its own: a request that has written stays on the primary after the hop. Spring Boot also
+// applies this bean to the MVC async executor that writes StreamingResponseBody exports.
+@Component
+public class ReadYourWritesTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        boolean recomputing = ReadYourWrites.isRecomputing();
+        if (attributes == null && !recomputing) {
+            return task;
+        }
+        return () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                if (recomputing) {
+                    ReadYourWrites.recompute(() -> {
+                        task.run();
+                        return null;
+                    });
+                } else {
+                    task.run();
+                }
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+    }
+}
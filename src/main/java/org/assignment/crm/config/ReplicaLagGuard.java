@@ -0,0 +1,102 @@
+package org.assignment.crm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Polls the replica's replication delay and takes it out of read routing while it is too far behind, not replicating,
+// or unreachable. Starts out unusable, so reads stay on the primary until the first check has passed. Each passing
+// check also dates what the replica is known to hold, which tells recomputes whether this node's last commit is there.
+public class ReplicaLagGuard {
+
+    static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Clock clock;
+    private final AtomicLong lastCommitMillis = new AtomicLong(Long.MIN_VALUE);
+
+    private volatile boolean replicaUsable;
+    private volatile long replicatedUpToMillis = Long.MIN_VALUE;
+
+    public ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag) {
+        this(replica, lagQuery, maxLag, Clock.systemUTC());
+    }
+
+    ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag, Clock clock) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(Math.max(1, (int) maxLag.toSeconds()));
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.clock = clock;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void recordCommit() {
+        lastCommitMillis.accumulateAndGet(clock.millis(), Math::max);
+    }
+
+    public boolean hasReplicatedLastCommit() {
+        return replicatedUpToMillis >= lastCommitMillis.get();
+    }
+
+    @Scheduled(fixedDelayString = "${crm.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean usable;
+        long checkedAt = clock.millis();
+        try {
+            Long lagSeconds = replica.query(lagQuery, ReplicaLagGuard::readLagSeconds);
+            usable = lagSeconds != null && lagSeconds <= maxLag.toSeconds();
+            if (usable) {
+                // The reported delay is truncated to whole seconds, so allow one more.
+                replicatedUpToMillis = Math.max(replicatedUpToMillis, checkedAt - (lagSeconds + 1) * 1000);
+            }
+            if (!usable && replicaUsable) {
+                logger.warn("Replica lag is {}s (limit {}s); routing reads to the primary",
+                        lagSeconds == null ? "unknown" : lagSeconds, maxLag.toSeconds());
+            }
+        } catch (RuntimeException e) {
+            usable = false;
+            if (replicaUsable) {
+                logger.warn("Replica lag check failed; routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            logger.info("Replica is within {}s of the primary; routing read-only transactions to it", maxLag.toSeconds());
+        }
+        replicaUsable = usable;
+    }
+
+    // MySQL's SHOW REPLICA STATUS has many columns and reports NULL while replication is stopped; any other query
+    // may return the delay in seconds as its first column. No row means the server is not a replica.
+    private static Long readLagSeconds(ResultSet rows) throws SQLException {
+        if (!rows.next()) {
+            return null;
+        }
+        int column = 1;
+        ResultSetMetaData metaData = rows.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                column = i;
+                break;
+            }
+        }
+        long lag = rows.getLong(column);
+        return rows.wasNull() ? null : lag;
+    }
+}
@@ -0,0 +1,76 @@
+package org.assignment.crm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ReportExecutorConfiguration {
+
+    public static final String REPORT_EXECUTOR = "reportExecutor";
+    public static final String REPORT_JOB_EXECUTOR = "reportJobExecutor";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportExecutorConfiguration.class);
+
+    @Autowired
+    private ReadYourWritesTaskDecorator readYourWritesTaskDecorator;
+
+    @Value("${crm.reports.executor.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${crm.reports.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${crm.reports.jobs.workers:4}")
+    private int jobWorkers;
+
+    @Value("${crm.reports.jobs.queue-capacity:50}")
+    private int jobQueueCapacity;
+
+    // Rejects instead of running on the caller when full: the request thread keeps its time budget, and a section
+    // that could not be scheduled is reported as missing, the same way as one that timed out. Sections run with the
+    // request's attributes, so a request that has written reads its sections from the primary.
+    @Bean(name = REPORT_EXECUTOR)
+    public TaskExecutor reportExecutor() {
+        if (Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("report-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            executor.setRejectTasksWhenLimitReached(true);
+            executor.setTaskDecorator(readYourWritesTaskDecorator);
+            logger.info("Report executor uses virtual threads with a concurrency limit of {}", maxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("report-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(readYourWritesTaskDecorator);
+        executor.initialize();
+        logger.info("Report executor uses a pool of {} platform threads with a queue of {}", maxConcurrency, queueCapacity);
+        return executor;
+    }
+
+    @Bean(name = REPORT_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("report-job-");
+        executor.setCorePoolSize(jobWorkers);
+        executor.setMaxPoolSize(jobWorkers);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        logger.info("Report job executor uses {} workers with a queue of {}", jobWorkers, jobQueueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,41 @@
+package org.assignment.crm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+    public static final String SEGMENTATION_EXECUTOR = "segmentationExecutor";
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingConfiguration.class);
+
+    @Value("${crm.segmentation.workers:2}")
+    private int segmentationWorkers;
+
+    @Value("${crm.segmentation.queue-capacity:4}")
+    private int segmentationQueueCapacity;
+
+    // Kept apart from the report executor so a full recompute cannot starve interactive reports. Runs a chunk on the
+    // caller when full: the caller waits for every chunk anyway, and this stops it paging ahead of the workers.
+    @Bean(name = SEGMENTATION_EXECUTOR)
+    public ThreadPoolTaskExecutor segmentationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("segmentation-");
+        executor.setCorePoolSize(segmentationWorkers);
+        executor.setMaxPoolSize(segmentationWorkers);
+        executor.setQueueCapacity(segmentationQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        logger.info("Segmentation executor uses {} workers with a queue of {}", segmentationWorkers, segmentationQueueCapacity);
+        return executor;
+    }
+}
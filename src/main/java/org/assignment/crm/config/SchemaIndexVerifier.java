@@ -0,0 +1,118 @@
+package org.assignment.crm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// ddl-auto=validate checks tables and columns but not indexes. This fails startup when an index a read path relies on
+// is missing, instead of letting those queries silently fall back to table scans. Runs after Flyway has migrated.
+@Component
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    // An index satisfies a requirement when its leading columns are the required ones, in order.
+    static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex("users", "role"),
+            new RequiredIndex("users", "manager_id"),
+            new RequiredIndex("customer_details", "value_segment", "id"),
+            new RequiredIndex("customer_details", "status", "id"),
+            new RequiredIndex("sale_details", "customer_id", "sale_date"),
+            new RequiredIndex("sale_details", "sales_rep_id", "sale_date"),
+            new RequiredIndex("sale_details", "customer_id", "id"),
+            new RequiredIndex("sale_details", "sales_rep_id", "id"),
+            new RequiredIndex("sale_details", "status", "id"),
+            new RequiredIndex("sale_details", "sale_date"),
+            new RequiredIndex("customer_interactions", "customer_id", "interaction_date"),
+            new RequiredIndex("customer_interactions", "customer_id", "id"),
+            new RequiredIndex("customer_interactions", "user_id", "id"),
+            new RequiredIndex("customer_interactions", "type", "id"),
+            new RequiredIndex("customer_interactions", "interaction_date"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${crm.schema.verify-indexes:true}")
+    private boolean enabled = true;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            logger.warn("Schema index verification is disabled");
+            return;
+        }
+        List<RequiredIndex> missing = findMissingIndexes();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database schema is missing required indexes " + missing
+                    + "; apply the migrations in db/migration before starting the application");
+        }
+        logger.info("Verified {} required indexes", REQUIRED_INDEXES.size());
+    }
+
+    List<RequiredIndex> findMissingIndexes() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+            List<RequiredIndex> missing = new ArrayList<>();
+            for (RequiredIndex required : REQUIRED_INDEXES) {
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(required.table(), table ->
+                        readIndexes(metaData, connection, table));
+                if (indexes.stream().noneMatch(required::isCoveredBy)) {
+                    missing.add(required);
+                }
+            }
+            return missing;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read index metadata: " + e.getMessage(), e);
+        }
+    }
+
+    private List<List<String>> readIndexes(DatabaseMetaData metaData, Connection connection, String table) {
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                        .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read indexes of table " + table + ": " + e.getMessage(), e);
+        }
+        return columnsByIndex.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+
+    record RequiredIndex(String table, List<String> columns) {
+
+        RequiredIndex(String table, String... columns) {
+            this(table, List.of(columns));
+        }
+
+        boolean isCoveredBy(List<String> indexColumns) {
+            return indexColumns.size() >= columns.size() && indexColumns.subList(0, columns.size()).equals(columns);
+        }
+
+        @Override
+        public String toString() {
+            return table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class SecurityConfiguration {
                                         ).permitAll()
                         .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
                         .requestMatchers("/api/users/**", "/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics/**", "/actuator/caches/**").hasRole("ADMIN")
                         .requestMatchers("/api/reports/analytics/**").hasAnyRole("ADMIN", "MANAGER")
                         .requestMatchers("/api/customers/**", "/api/sales/**").hasAnyRole("ADMIN", "MANAGER", "SALES_REP")
                         .requestMatchers("/api/interactions/**").hasAnyRole("ADMIN", "MANAGER", "SALES_REP", "SUPPORT")
@@ -1,13 +1,18 @@
 package org.assignment.crm.controller;
 
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.Customer;
+import org.assignment.crm.enums.CustomerValueSegment;
 import org.assignment.crm.exception.CustomerNotFound;
+import org.assignment.crm.service.CustomerSegmentationService;
 import org.assignment.crm.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -16,6 +21,9 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerSegmentationService customerSegmentationService;
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @PostMapping
     public Customer createCustomer(@RequestBody Customer customer) {
@@ -24,8 +32,23 @@ public class CustomerController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping
-    public List<Customer> getAllCustomers() {
-        return customerService.findAll();
+    public ResponseEntity<List<Customer>> getAllCustomers(@RequestParam(required = false) CustomerValueSegment segment,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        KeysetPageRequest page = KeysetPageRequest.of(cursor, limit);
+        return KeysetPageResponses.ok(segment != null ? customerService.findByValueSegment(segment, page) : customerService.findAll(page));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping("/segments")
+    public Map<CustomerValueSegment, Long> getSegmentCounts() {
+        return customerSegmentationService.getSegmentCounts();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/segments/recompute")
+    public Map<CustomerValueSegment, Long> recomputeSegments() {
+        return customerSegmentationService.recomputeAll();
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
@@ -50,8 +73,9 @@ public class CustomerController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @GetMapping("/active")
-    public List<Customer> getActiveCustomers(){
-        return this.customerService.findActiveCustomers();
+    public ResponseEntity<List<Customer>> getActiveCustomers(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(this.customerService.findActiveCustomers(KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
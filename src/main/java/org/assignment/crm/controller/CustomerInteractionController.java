@@ -1,9 +1,12 @@
 package org.assignment.crm.controller;
 
+import org.assignment.crm.dto.InteractionSummary;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.CustomerInteraction;
 import org.assignment.crm.enums.InteractionType;
 import org.assignment.crm.service.CustomerInteractionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,8 +21,9 @@ public class CustomerInteractionController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping
-    public List<CustomerInteraction> getAllCustomerInteractions() {
-        return this.customerInteractionService.getAllCustomerInteractions();
+    public ResponseEntity<List<InteractionSummary>> getAllCustomerInteractions(@RequestParam(required = false) String cursor,
+                                                                                @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(this.customerInteractionService.getAllCustomerInteractions(KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
@@ -30,21 +34,27 @@ public class CustomerInteractionController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping("/customer/{id}")
-    public List<CustomerInteraction> getCustomerInteractionsByCustomerId(@PathVariable long id) {
-        return this.customerInteractionService.getInteractionsByCustomerId(id);
+    public ResponseEntity<List<InteractionSummary>> getCustomerInteractionsByCustomerId(@PathVariable long id,
+                                                                                         @RequestParam(required = false) String cursor,
+                                                                                         @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(this.customerInteractionService.getInteractionsByCustomerId(id, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping("/user/{id}")
-    public List<CustomerInteraction> getCustomerInteractionsByUserId(@PathVariable long id) {
-        return this.customerInteractionService.getInteractionsByUserId(id);
+    public ResponseEntity<List<InteractionSummary>> getCustomerInteractionsByUserId(@PathVariable long id,
+                                                                                     @RequestParam(required = false) String cursor,
+                                                                                     @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(this.customerInteractionService.getInteractionsByUserId(id, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping("/type/{interactionType}")
-    public List<CustomerInteraction> getCustomerInteractionByType(
-            @PathVariable InteractionType interactionType) {
-        return this.customerInteractionService.getInteractionsByType(interactionType);
+    public ResponseEntity<List<InteractionSummary>> getCustomerInteractionByType(
+            @PathVariable InteractionType interactionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(this.customerInteractionService.getInteractionsByType(interactionType, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -55,7 +65,7 @@ public class CustomerInteractionController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP', 'SUPPORT')")
     @GetMapping("/recent")
-    public List<CustomerInteraction> getRecentInteractions(
+    public List<InteractionSummary> getRecentInteractions(
             @RequestParam(defaultValue = "10") int limit) {
         return this.customerInteractionService.getRecentInteractions(limit);
     }
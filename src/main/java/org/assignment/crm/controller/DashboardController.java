@@ -1,21 +1,24 @@
 package org.assignment.crm.controller;
 
-import org.assignment.crm.entity.Sale;
+import org.assignment.crm.config.ReadYourWrites;
 import org.assignment.crm.entity.User;
-import org.assignment.crm.enums.UserRole;
-import org.assignment.crm.service.CustomerService;
-import org.assignment.crm.service.SaleService;
+import org.assignment.crm.service.DashboardService;
+import org.assignment.crm.service.DashboardStreamService;
+import org.assignment.crm.service.DashboardTileService;
+import org.assignment.crm.service.DataVersionService;
 import org.assignment.crm.service.UserService;
-import org.assignment.crm.service.CustomerInteractionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 @RestController
@@ -26,16 +29,37 @@ public class DashboardController {
     private UserService userService;
 
     @Autowired
-    private CustomerService customerService;
+    private DashboardService dashboardService;
 
     @Autowired
-    private SaleService saleService;
+    private DashboardStreamService dashboardStreamService;
 
     @Autowired
-    private CustomerInteractionService customerInteractionService;
+    private DashboardTileService dashboardTileService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe();
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping("/org/{managerId}")
+    public Map<String, Object> getOrgRollup(@PathVariable long managerId, WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
+        return ReadYourWrites.recompute(() -> dashboardService.getOrgRollup(managerId));
+    }
 
     @GetMapping("/{username}")
-    public Map<String, Object> getUserDashboard(@PathVariable String username) {
+    public Map<String, Object> getUserDashboard(@PathVariable String username, WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
         Optional<User> userOpt = userService.findByUserName(username);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found: " + username);
@@ -52,140 +76,11 @@ public class DashboardController {
         dashboard.put("role", user.getRole().toString());
         dashboard.put("status", user.getStatus().toString());
 
-        switch (user.getRole()) {
-            case ADMIN:
-                dashboard.putAll(getAdminDashboardData());
-                break;
-            case MANAGER:
-                dashboard.putAll(getManagerDashboardData(user.getId()));
-                break;
-            case SALES_REP:
-                dashboard.putAll(getSalesRepDashboardData(user.getId()));
-                break;
-            case SUPPORT:
-                dashboard.putAll(getSupportDashboardData(user.getId()));
-                break;
-        }
-
-        return dashboard;
-    }
-
-    private Map<String, Object> getAdminDashboardData() {
-        Map<String, Object> adminData = new HashMap<>();
-
-        adminData.put("totalCustomers", customerService.getTotalCount());
-        adminData.put("activeCustomers", customerService.findActiveCustomers().size());
-        adminData.put("totalSales", saleService.getAllSales().size());
-        adminData.put("totalUsers", userService.findAll().size());
-        adminData.put("totalInteractions", customerInteractionService.getTotalInteractionCount());
-
-        adminData.put("adminUsers", userService.findByRole(UserRole.ADMIN).size());
-        adminData.put("managerUsers", userService.findByRole(UserRole.MANAGER).size());
-        adminData.put("salesRepUsers", userService.findByRole(UserRole.SALES_REP).size());
-        adminData.put("supportUsers", userService.findByRole(UserRole.SUPPORT).size());
-
-        adminData.put("dashboardType", "ADMIN_OVERVIEW");
-        adminData.put("welcomeMessage", "Welcome to the CRM Admin Dashboard! You have full system access.");
-
-        return adminData;
-    }
-
-    private Map<String, Object> getManagerDashboardData(long managerId) {
-
-        Map<String, Object> dashboard = new HashMap<>();
-
-        dashboard.put("totalCustomers",        customerService.getTotalCount());
-        dashboard.put("activeCustomers",       customerService.findActiveCustomers().size());
-        dashboard.put("totalSales",            saleService.getAllSales().size());
-        dashboard.put("totalSalesReps",        userService.findByRole(UserRole.SALES_REP).size());
-        dashboard.put("totalInteractions",     customerInteractionService.getTotalInteractionCount());
-        dashboard.put("recentInteractions",    customerInteractionService.getRecentInteractions(5).size());
-        dashboard.put("dashboardType",         "MANAGER_OVERVIEW");
-        dashboard.put("welcomeMessage",        "Welcome to the CRM Manager Dashboard! Monitor your team's performance.");
-
-        List<User> teamMembers = userService.findByManager(managerId);
-
-        List<Map<String, Object>> teamStats = new ArrayList<>();
-        int     teamSalesCount  = 0;
-        BigDecimal teamSalesVal = BigDecimal.ZERO;
-
-        for (User member : teamMembers) {
-
-            List<Sale> sales = saleService.getSalesByRepId(member.getId());
-
-            int count          = sales.size();
-            BigDecimal amount  = sales.stream()
-                    .map(Sale::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            teamSalesCount += count;
-            teamSalesVal   = teamSalesVal.add(amount);
-
-            Map<String, Object> m = new HashMap<>();
-            m.put("id",               member.getId());
-            m.put("name",             member.getFirstname() + " " + member.getLastName());
-            m.put("role",             member.getRole());
-            m.put("totalSales",       count);
-            m.put("totalSalesValue",  amount);
-
-            teamStats.add(m);
+        dashboard.putAll(dashboardTileService.compose(user.getRole(), user.getId()));
+        if (Boolean.TRUE.equals(dashboard.get("partial"))) {
+            dataVersionService.markPartial(request);
         }
 
-        dashboard.put("teamSales",       teamSalesCount);
-        dashboard.put("teamSalesValue",  teamSalesVal);
-        dashboard.put("teamStats",       teamStats);
-
         return dashboard;
     }
-
-
-    private Map<String, Object> getSalesRepDashboardData(Long userId) {
-        Map<String, Object> salesRepData = new HashMap<>();
-
-        try {
-            salesRepData.put("mySales", saleService.getSaleByRepId(userId).size());
-            salesRepData.put("myInteractions", customerInteractionService.getInteractionsByUserId(userId).size());
-            salesRepData.put("totalCustomers", customerService.getTotalCount());
-            salesRepData.put("recentInteractions", customerInteractionService.getRecentInteractions(5).size());
-
-            salesRepData.put("salesThisMonth", saleService.getSaleByRepId(userId).size());
-            salesRepData.put("dashboardType", "SALES_REP_PERFORMANCE");
-            salesRepData.put("welcomeMessage", "Welcome to your Sales Dashboard! Track your performance and manage your customers.");
-
-        } catch (Exception e) {
-            salesRepData.put("mySales", 0);
-            salesRepData.put("myInteractions", 0);
-            salesRepData.put("totalCustomers", customerService.getTotalCount());
-            salesRepData.put("recentInteractions", 0);
-            salesRepData.put("salesThisMonth", 0);
-            salesRepData.put("dashboardType", "SALES_REP_PERFORMANCE");
-            salesRepData.put("welcomeMessage", "Welcome to your Sales Dashboard! Start tracking your performance.");
-        }
-
-        return salesRepData;
-    }
-
-    private Map<String, Object> getSupportDashboardData(Long userId) {
-        Map<String, Object> supportData = new HashMap<>();
-
-        try {
-            supportData.put("myInteractions", customerInteractionService.getInteractionsByUserId(userId).size());
-            supportData.put("totalCustomers", customerService.getTotalCount());
-            supportData.put("recentInteractions", customerInteractionService.getRecentInteractions(10).size());
-            supportData.put("totalInteractions", customerInteractionService.getTotalInteractionCount());
-
-            supportData.put("dashboardType", "SUPPORT_OVERVIEW");
-            supportData.put("welcomeMessage", "Welcome to the Support Dashboard! Manage customer interactions and provide excellent service.");
-
-        } catch (Exception e) {
-            supportData.put("myInteractions", 0);
-            supportData.put("totalCustomers", customerService.getTotalCount());
-            supportData.put("recentInteractions", 0);
-            supportData.put("totalInteractions", customerInteractionService.getTotalInteractionCount());
-            supportData.put("dashboardType", "SUPPORT_OVERVIEW");
-            supportData.put("welcomeMessage", "Welcome to the Support Dashboard! Start managing customer interactions.");
-        }
-
-        return supportData;
-    }
 }
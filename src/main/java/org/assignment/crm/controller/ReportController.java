@@ -1,10 +1,29 @@
 package org.assignment.crm.controller;
 
+import org.assignment.crm.config.ReadYourWrites;
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.dto.ReportJobRequest;
+import org.assignment.crm.dto.ReportJobView;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.service.DataVersionService;
+import org.assignment.crm.service.KpiAggregateService;
+import org.assignment.crm.service.ReportJobService;
 import org.assignment.crm.service.ReportService;
+import org.assignment.crm.service.SaleExportService;
+import org.assignment.crm.service.SaleRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,21 +33,110 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private KpiAggregateService kpiAggregateService;
+
+    @Autowired
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private SaleExportService saleExportService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/dashboard")
-    public Map<String, Object> getDashboard() {
-        return reportService.getDashboardReport();
+    public Map<String, Object> getDashboard(WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
+        return ReadYourWrites.recompute(reportService::getDashboardReport);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/customer/{customerId}/activity")
-    public Map<String, Object> getCustomerActivity(@PathVariable Long customerId) {
-        return reportService.getCustomerActivityReport(customerId);
+    public Map<String, Object> getCustomerActivity(@PathVariable Long customerId, WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
+        Map<String, Object> report = ReadYourWrites.recompute(() -> reportService.getCustomerActivityReport(customerId));
+        if (Boolean.TRUE.equals(report.get("partial"))) {
+            dataVersionService.markPartial(request);
+        }
+        return report;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @GetMapping("/sales-trends")
-    public Map<String, Object> getSalesTrends() {
-        return reportService.getSalesTrendsReport();
+    public Map<String, Object> getSalesTrends(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
+        return ReadYourWrites.recompute(() -> reportService.getSalesTrendsReport(from, to, granularity));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping(value = "/sales-trends", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSalesTrends(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            WebRequest request) {
+        if (dataVersionService.checkNotModified(request)) {
+            return null;
+        }
+        StreamingResponseBody body = out -> saleExportService.writeSalesTrendAsNdjson(granularity, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/sales-trends/rebuild")
+    public int rebuildSalesRollups() {
+        int rollups = saleRollupService.rebuild();
+        dataVersionService.bump();
+        return rollups;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/kpi/rebuild")
+    public KpiTotals rebuildKpiAggregates() {
+        KpiTotals totals = kpiAggregateService.rebuild();
+        dataVersionService.bump();
+        return totals;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or (hasRole('SALES_REP') and #request.type() == T(org.assignment.crm.enums.ReportJobType).CUSTOMER_ACTIVITY)")
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobView> submitReportJob(@RequestBody ReportJobRequest request, Authentication authentication) {
+        ReportJobView job = reportJobService.submit(authentication.getName(), request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reports/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @GetMapping("/jobs")
+    public List<ReportJobView> getReportJobs(Authentication authentication) {
+        return reportJobService.getJobs(authentication.getName());
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @GetMapping("/jobs/{jobId}")
+    public ReportJobView getReportJob(@PathVariable String jobId, Authentication authentication) {
+        return reportJobService.getJob(authentication.getName(), jobId);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @DeleteMapping("/jobs/{jobId}")
+    public ReportJobView cancelReportJob(@PathVariable String jobId, Authentication authentication) {
+        return reportJobService.cancel(authentication.getName(), jobId);
     }
 }
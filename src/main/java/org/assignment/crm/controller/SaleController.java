@@ -1,12 +1,18 @@
 package org.assignment.crm.controller;
 
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.Sale;
 import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.service.SaleExportService;
 import org.assignment.crm.service.SaleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +24,9 @@ public class SaleController {
     @Autowired
     private SaleService saleService;
 
+    @Autowired
+    private SaleExportService saleExportService;
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -25,10 +34,25 @@ public class SaleController {
         return saleService.addSale(sale);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<Sale> createSales(@RequestBody List<Sale> sales) {
+        return saleService.addSales(sales);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping
-    public List<Sale> getAllSales() {
-        return saleService.getAllSales();
+    public ResponseEntity<List<SaleSummary>> getAllSales(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getAllSales(KeysetPageRequest.of(cursor, limit)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllSales() {
+        StreamingResponseBody body = saleExportService::writeSalesAsNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
@@ -39,14 +63,18 @@ public class SaleController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/rep/{repId}")
-    public List<Sale> getSalesByRepId(@PathVariable long repId) {
-        return saleService.getSaleByRepId(repId);
+    public ResponseEntity<List<SaleSummary>> getSalesByRepId(@PathVariable long repId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getSaleByRepId(repId, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/customer/{customerId}")
-    public List<Sale> getSalesByCustomerId(@PathVariable long customerId) {
-        return saleService.getSaleByCustomerId(customerId);
+    public ResponseEntity<List<SaleSummary>> getSalesByCustomerId(@PathVariable long customerId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getSaleByCustomerId(customerId, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
@@ -82,20 +110,24 @@ public class SaleController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/status/{status}")
-    public List<Sale> getSalesByStatus(@PathVariable SaleStatus status) {
-        return saleService.getSalesByStatus(status);
+    public ResponseEntity<List<SaleSummary>> getSalesByStatus(@PathVariable SaleStatus status,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getSalesByStatus(status, KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/completed")
-    public List<Sale> getCompletedSales() {
-        return saleService.getCompletedSales();
+    public ResponseEntity<List<SaleSummary>> getCompletedSales(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getCompletedSales(KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
     @GetMapping("/canceled")
-    public List<Sale> getCanceledSales() {
-        return saleService.getCanceledSales();
+    public ResponseEntity<List<SaleSummary>> getCanceledSales(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(saleService.getCanceledSales(KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SALES_REP')")
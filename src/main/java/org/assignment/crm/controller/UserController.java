@@ -1,9 +1,11 @@
 package org.assignment.crm.controller;
 
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.User;
 import org.assignment.crm.exception.UserNotFound;
 import org.assignment.crm.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,8 +26,9 @@ public class UserController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.findAll();
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return KeysetPageResponses.ok(userService.findAll(KeysetPageRequest.of(cursor, limit)));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -67,6 +70,12 @@ public class UserController {
         return userService.deactivateUser(id);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping("/{id}/subordinates")
+    public List<User> getSubordinates(@PathVariable Long id) {
+        return userService.findSubordinates(id);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{userId}/manager/{managerId}")
     public User assignManager(@PathVariable Long userId, @PathVariable Long managerId) {return this.userService.setManager(userId,managerId);}
@@ -0,0 +1,8 @@
+package org.assignment.crm.dto;
+
+public interface CustomerInteractionCountRow {
+
+    Long getCustomerId();
+
+    Long getInteractionCount();
+}
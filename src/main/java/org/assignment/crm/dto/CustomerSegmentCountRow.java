@@ -0,0 +1,10 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.CustomerValueSegment;
+
+public interface CustomerSegmentCountRow {
+
+    CustomerValueSegment getSegment();
+
+    Long getCustomerCount();
+}
@@ -0,0 +1,10 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.CustomerStatus;
+
+public interface CustomerStatusCountRow {
+
+    CustomerStatus getStatus();
+
+    Long getCustomerCount();
+}
@@ -0,0 +1,19 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailySalesRow {
+
+    LocalDate getSaleDay();
+
+    SaleStatus getStatus();
+
+    Long getSalesRepId();
+
+    Long getSaleCount();
+
+    BigDecimal getRevenue();
+}
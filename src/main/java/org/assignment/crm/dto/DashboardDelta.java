@@ -0,0 +1,20 @@
+package org.assignment.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+
+// One pushed dashboard change; totals are the KPI values after the change, so a client that
+// also saw the change in its connect snapshot can simply overwrite rather than double count.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DashboardDelta(long sequence,
+                             String entity,
+                             ChangeType change,
+                             Long id,
+                             SaleStatus previousStatus,
+                             SaleStatus status,
+                             BigDecimal revenueDelta,
+                             KpiTotals totals) {
+}
@@ -0,0 +1,15 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.InteractionType;
+
+import java.time.LocalDateTime;
+
+public record InteractionSummary(Long id,
+                                 InteractionType type,
+                                 LocalDateTime interactionDate,
+                                 String notes,
+                                 Long customerId,
+                                 String customerName,
+                                 Long performedById,
+                                 String performedByName) {
+}
@@ -0,0 +1,20 @@
+package org.assignment.crm.dto;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    // Takes the limit + 1 rows fetched for the request; the extra row only signals that another page exists.
+    public static <T> KeysetPage<T> of(List<T> fetched, KeysetPageRequest request, ToLongFunction<T> idOf) {
+        if (fetched.size() <= request.limit()) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, request.limit());
+        return new KeysetPage<>(List.copyOf(items), KeysetPageRequest.encode(idOf.applyAsLong(items.get(items.size() - 1))));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,51 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.exception.InvalidPageRequest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// A seek-pagination request: rows with an id above afterId, in id order. Cursors are opaque to clients.
+public record KeysetPageRequest(long afterId, int limit) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public static KeysetPageRequest first(int limit) {
+        return of(null, limit);
+    }
+
+    public static KeysetPageRequest of(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return new KeysetPageRequest(cursor == null || cursor.isBlank() ? 0 : decode(cursor), limit);
+    }
+
+    public boolean isFirstPage() {
+        return afterId == 0;
+    }
+
+    // One row more than the page, so the presence of a next page is known without a count query.
+    public Pageable fetchPage() {
+        return PageRequest.ofSize(limit + 1);
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decode(String cursor) {
+        try {
+            long afterId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (afterId < 0) {
+                throw new InvalidPageRequest("Invalid cursor");
+            }
+            return afterId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequest("Invalid cursor");
+        }
+    }
+}
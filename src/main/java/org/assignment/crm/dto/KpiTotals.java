@@ -0,0 +1,31 @@
+package org.assignment.crm.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record KpiTotals(long totalCustomers,
+                        long totalSales,
+                        long totalInteractions,
+                        BigDecimal totalRevenue) {
+
+    public static final KpiTotals EMPTY = new KpiTotals(0, 0, 0, BigDecimal.ZERO);
+
+    public KpiTotals withCustomers(long delta) {
+        return new KpiTotals(totalCustomers + delta, totalSales, totalInteractions, totalRevenue);
+    }
+
+    public KpiTotals withSales(long delta, BigDecimal revenueDelta) {
+        return new KpiTotals(totalCustomers, totalSales + delta, totalInteractions, totalRevenue.add(revenueDelta));
+    }
+
+    public KpiTotals withInteractions(long delta) {
+        return new KpiTotals(totalCustomers, totalSales, totalInteractions + delta, totalRevenue);
+    }
+
+    public BigDecimal averageSaleValue() {
+        if (totalSales == 0) {
+            return null;
+        }
+        return totalRevenue.divide(BigDecimal.valueOf(totalSales), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,13 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.ReportJobType;
+import org.assignment.crm.enums.RollupGranularity;
+
+import java.time.LocalDate;
+
+public record ReportJobRequest(ReportJobType type,
+                               Long customerId,
+                               LocalDate from,
+                               LocalDate to,
+                               RollupGranularity granularity) {
+}
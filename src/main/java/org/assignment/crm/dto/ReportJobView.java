@@ -0,0 +1,18 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.ReportJobStatus;
+import org.assignment.crm.enums.ReportJobType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record ReportJobView(String id,
+                            ReportJobType type,
+                            ReportJobStatus status,
+                            LocalDateTime submittedAt,
+                            LocalDateTime startedAt,
+                            LocalDateTime finishedAt,
+                            LocalDateTime expiresAt,
+                            String error,
+                            Map<String, Object> result) {
+}
@@ -0,0 +1,21 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface SaleColumnRow {
+
+    Long getId();
+
+    BigDecimal getAmount();
+
+    LocalDateTime getSaleDate();
+
+    Long getSalesRepId();
+
+    Long getCustomerId();
+
+    SaleStatus getStatus();
+}
@@ -0,0 +1,19 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What list and report reads need from a sale: its own columns plus the id and name of the customer and rep,
+// selected in one query instead of loading both entities (and the rep's manager chain) per row.
+public record SaleSummary(Long id,
+                          BigDecimal amount,
+                          LocalDateTime saleDate,
+                          SaleStatus status,
+                          String description,
+                          Long customerId,
+                          String customerName,
+                          Long salesRepId,
+                          String salesRepName) {
+}
@@ -0,0 +1,12 @@
+package org.assignment.crm.dto;
+
+import java.math.BigDecimal;
+
+public interface SalesRepRevenueRow {
+
+    Long getSalesRepId();
+
+    Long getSaleCount();
+
+    BigDecimal getRevenue();
+}
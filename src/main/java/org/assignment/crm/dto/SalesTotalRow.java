@@ -0,0 +1,10 @@
+package org.assignment.crm.dto;
+
+import java.math.BigDecimal;
+
+public interface SalesTotalRow {
+
+    Long getSaleCount();
+
+    BigDecimal getSalesValue();
+}
@@ -0,0 +1,17 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface SalesTrendRow {
+
+    LocalDate getPeriodStart();
+
+    SaleStatus getStatus();
+
+    Long getSaleCount();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,20 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.UserRole;
+
+import java.math.BigDecimal;
+
+public interface TeamMemberSalesRow {
+
+    Long getId();
+
+    String getFirstname();
+
+    String getLastName();
+
+    UserRole getRole();
+
+    Long getSaleCount();
+
+    BigDecimal getSalesValue();
+}
@@ -0,0 +1,8 @@
+package org.assignment.crm.dto;
+
+public interface UserManagerRow {
+
+    Long getId();
+
+    Long getManagerId();
+}
@@ -0,0 +1,10 @@
+package org.assignment.crm.dto;
+
+import org.assignment.crm.enums.UserRole;
+
+public interface UserRoleCountRow {
+
+    UserRole getRole();
+
+    Long getUserCount();
+}
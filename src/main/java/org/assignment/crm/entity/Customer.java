@@ -1,17 +1,34 @@
 package org.assignment.crm.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customer_details")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
+@NaturalIdCache(region = Customer.EMAIL_CACHE_REGION)
+@Table(name = "customer_details", indexes = {
+        @Index(name = "idx_customer_value_segment", columnList = "valueSegment, id"),
+        @Index(name = "idx_customer_status_id", columnList = "status, id")
+})
 public class Customer {
+    public static final String CACHE_REGION = "customers";
+    public static final String EMAIL_CACHE_REGION = "customer-emails";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_ids")
+    @TableGenerator(name = "customer_ids", table = IdGeneration.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customer_details", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -20,6 +37,7 @@ public class Customer {
     @Column(nullable = false)
     private String lastName;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -34,6 +52,12 @@ public class Customer {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private CustomerValueSegment valueSegment;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime segmentUpdatedAt;
 
     public Customer(Long id, String firstName, String lastName, String email, String phoneNumber, String company, String address, CustomerStatus status, BigDecimal totalPurchaseValue, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
@@ -141,6 +165,22 @@ public class Customer {
         this.updatedAt = updatedAt;
     }
 
+    public CustomerValueSegment getValueSegment() {
+        return valueSegment;
+    }
+
+    public void setValueSegment(CustomerValueSegment valueSegment) {
+        this.valueSegment = valueSegment;
+    }
+
+    public LocalDateTime getSegmentUpdatedAt() {
+        return segmentUpdatedAt;
+    }
+
+    public void setSegmentUpdatedAt(LocalDateTime segmentUpdatedAt) {
+        this.segmentUpdatedAt = segmentUpdatedAt;
+    }
+
 
     @Override
     public String toString() {
@@ -156,6 +196,7 @@ public class Customer {
                 ", totalPurchaseValue=" + totalPurchaseValue +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", valueSegment=" + valueSegment +
                 '}';
     }
 }
@@ -8,10 +8,24 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "customer_interactions")
+@NamedEntityGraph(name = CustomerInteraction.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode("performedBy")
+})
+@Table(name = "customer_interactions", indexes = {
+        @Index(name = "idx_interaction_date", columnList = "interactionDate"),
+        @Index(name = "idx_interaction_customer_id", columnList = "customer_id, id"),
+        @Index(name = "idx_interaction_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_interaction_type_id", columnList = "type, id"),
+        @Index(name = "idx_interaction_customer_date", columnList = "customer_id, interactionDate")
+})
 public class CustomerInteraction {
+    public static final String WITH_PARTIES = "CustomerInteraction.withParties";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "interaction_ids")
+    @TableGenerator(name = "interaction_ids", table = IdGeneration.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customer_interactions", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -23,12 +37,12 @@ public class CustomerInteraction {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.SET_NULL)
     @JoinColumn(name = "customer_id", nullable = true)
     private Customer customer;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = true)
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private User performedBy;
@@ -43,8 +57,8 @@ public class CustomerInteraction {
                 ", type=" + type +
                 ", interactionDate=" + interactionDate +
                 ", notes='" + notes + '\'' +
-                ", customer=" + customer +
-                ", performedBy=" + performedBy +
+                ", customerId=" + (customer != null ? customer.getId() : null) +
+                ", performedById=" + (performedBy != null ? performedBy.getId() : null) +
                 ", createdTime=" + createdTime +
                 ", updateTime=" + updateTime +
                 '}';
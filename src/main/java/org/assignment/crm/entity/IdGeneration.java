@@ -0,0 +1,14 @@
+package org.assignment.crm.entity;
+
+// Ids come from one row per table in id_sequences (see V2__pooled_id_generation.sql) rather than auto_increment:
+// Hibernate cannot batch inserts whose id is only known after the row is written. Each fetch reserves
+// ALLOCATION_SIZE ids, matching hibernate.jdbc.batch_size. With the pooled-lo optimizer next_val is the highest id
+// reserved so far, so another writer only has to advance it past the ids it uses.
+public final class IdGeneration {
+
+    public static final String TABLE = "id_sequences";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGeneration() {
+    }
+}
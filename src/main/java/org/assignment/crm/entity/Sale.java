@@ -10,10 +10,26 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sale_details")
+@NamedEntityGraph(name = Sale.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode("salesRep")
+})
+@Table(name = "sale_details", indexes = {
+        @Index(name = "idx_sale_sale_date", columnList = "saleDate"),
+        @Index(name = "idx_sale_amount", columnList = "amount"),
+        @Index(name = "idx_sale_rep_id", columnList = "sales_rep_id, id"),
+        @Index(name = "idx_sale_customer_id", columnList = "customer_id, id"),
+        @Index(name = "idx_sale_status_id", columnList = "status, id"),
+        @Index(name = "idx_sale_customer_date", columnList = "customer_id, saleDate"),
+        @Index(name = "idx_sale_rep_date", columnList = "sales_rep_id, saleDate")
+})
 public class Sale {
+    public static final String WITH_PARTIES = "Sale.withParties";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sale_ids")
+    @TableGenerator(name = "sale_ids", table = IdGeneration.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "sale_details", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -27,12 +43,12 @@ public class Sale {
 
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.SET_NULL)
     @JoinColumn(name = "customer_id", nullable = true)
     private Customer customer;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sales_rep_id", nullable = true)
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private User salesRep;
@@ -137,8 +153,8 @@ public class Sale {
                 ", saleDate=" + saleDate +
                 ", status=" + status +
                 ", description='" + description + '\'' +
-                ", customer=" + customer +
-                ", salesRep=" + salesRep +
+                ", customerId=" + (customer != null ? customer.getId() : null) +
+                ", salesRepId=" + (salesRep != null ? salesRep.getId() : null) +
                 ", createdAt=" + createdAt +
                 '}';
     }
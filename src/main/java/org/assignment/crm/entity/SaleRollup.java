@@ -0,0 +1,136 @@
+package org.assignment.crm.entity;
+
+import jakarta.persistence.*;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@IdClass(SaleRollupId.class)
+@Table(name = "sale_rollups")
+public class SaleRollup {
+
+    // Sales without a rep are rolled up under this id so the key stays non-null.
+    public static final long UNASSIGNED_REP = 0L;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupGranularity granularity;
+
+    @Id
+    private LocalDate periodStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private SaleStatus status;
+
+    @Id
+    private long salesRepId;
+
+    @Column(nullable = false)
+    private int periodYear;
+
+    @Column(nullable = false)
+    private int periodMonth;
+
+    @Column(nullable = false)
+    private long saleCount;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    public SaleRollup(RollupGranularity granularity, LocalDate periodStart, SaleStatus status, long salesRepId, long saleCount, BigDecimal revenue) {
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+        this.status = status;
+        this.salesRepId = salesRepId;
+        this.periodYear = periodStart.getYear();
+        this.periodMonth = periodStart.getMonthValue();
+        this.saleCount = saleCount;
+        this.revenue = revenue;
+    }
+
+    public SaleRollup() {
+        super();
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public SaleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SaleStatus status) {
+        this.status = status;
+    }
+
+    public long getSalesRepId() {
+        return salesRepId;
+    }
+
+    public void setSalesRepId(long salesRepId) {
+        this.salesRepId = salesRepId;
+    }
+
+    public int getPeriodYear() {
+        return periodYear;
+    }
+
+    public void setPeriodYear(int periodYear) {
+        this.periodYear = periodYear;
+    }
+
+    public int getPeriodMonth() {
+        return periodMonth;
+    }
+
+    public void setPeriodMonth(int periodMonth) {
+        this.periodMonth = periodMonth;
+    }
+
+    public long getSaleCount() {
+        return saleCount;
+    }
+
+    public void setSaleCount(long saleCount) {
+        this.saleCount = saleCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public String toString() {
+        return "SaleRollup{" +
+                "granularity=" + granularity +
+                ", periodStart=" + periodStart +
+                ", status=" + status +
+                ", salesRepId=" + salesRepId +
+                ", saleCount=" + saleCount +
+                ", revenue=" + revenue +
+                '}';
+    }
+}
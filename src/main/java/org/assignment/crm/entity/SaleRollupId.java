@@ -0,0 +1,42 @@
+package org.assignment.crm.entity;
+
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class SaleRollupId implements Serializable {
+
+    private RollupGranularity granularity;
+    private LocalDate periodStart;
+    private SaleStatus status;
+    private long salesRepId;
+
+    public SaleRollupId(RollupGranularity granularity, LocalDate periodStart, SaleStatus status, long salesRepId) {
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+        this.status = status;
+        this.salesRepId = salesRepId;
+    }
+
+    public SaleRollupId() {
+        super();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SaleRollupId that)) return false;
+        return salesRepId == that.salesRepId
+                && granularity == that.granularity
+                && Objects.equals(periodStart, that.periodStart)
+                && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularity, periodStart, status, salesRepId);
+    }
+}
@@ -1,9 +1,14 @@
 package org.assignment.crm.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import org.assignment.crm.enums.UserRole;
 import org.assignment.crm.enums.UserStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -11,16 +16,31 @@ import java.time.LocalDateTime;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.USER_NAME_CACHE_REGION)
+@NamedEntityGraph(name = User.WITH_MANAGER, attributeNodes = @NamedAttributeNode("manager"))
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role", columnList = "role"),
+        @Index(name = "idx_users_manager_id", columnList = "manager_id")
+})
 public class User {
+    public static final String WITH_MANAGER = "User.withManager";
+    public static final String CACHE_REGION = "users";
+    public static final String USER_NAME_CACHE_REGION = "user-names";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids")
+    @TableGenerator(name = "user_ids", table = IdGeneration.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private long id;
 
+    @NaturalId
     @Column(unique = true,nullable = false)
     private String userName;
     @Column(unique = true,nullable = false)
     private String email;
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(unique = true,nullable = false)
     private String password;
 
@@ -61,12 +81,11 @@ public class User {
                 "id=" + id +
                 ", userName='" + userName + '\'' +
                 ", email='" + email + '\'' +
-                ", password='" + password + '\'' +
                 ", firstname='" + firstname + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", role=" + role +
                 ", status=" + status +
-                ", manager=" + manager +
+                ", managerId=" + (manager != null ? manager.getId() : null) +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
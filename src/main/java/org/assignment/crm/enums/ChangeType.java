@@ -0,0 +1,7 @@
+package org.assignment.crm.enums;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,22 @@
+package org.assignment.crm.enums;
+
+import java.math.BigDecimal;
+
+public enum CustomerValueSegment {
+    HIGH_VALUE,
+    MEDIUM_VALUE,
+    LOW_VALUE;
+
+    private static final BigDecimal HIGH_REVENUE = BigDecimal.valueOf(10000);
+    private static final BigDecimal MEDIUM_REVENUE = BigDecimal.valueOf(5000);
+
+    public static CustomerValueSegment classify(BigDecimal revenue, long interactionCount) {
+        if (revenue.compareTo(HIGH_REVENUE) > 0 && interactionCount > 5) {
+            return HIGH_VALUE;
+        }
+        if (revenue.compareTo(MEDIUM_REVENUE) > 0 || interactionCount > 3) {
+            return MEDIUM_VALUE;
+        }
+        return LOW_VALUE;
+    }
+}
@@ -0,0 +1,8 @@
+package org.assignment.crm.enums;
+
+public enum DashboardTileStatus {
+    READY,
+    STALE,
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package org.assignment.crm.enums;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
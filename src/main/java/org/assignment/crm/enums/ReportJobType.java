@@ -0,0 +1,6 @@
+package org.assignment.crm.enums;
+
+public enum ReportJobType {
+    SALES_TRENDS,
+    CUSTOMER_ACTIVITY
+}
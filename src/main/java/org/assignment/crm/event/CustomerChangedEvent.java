@@ -0,0 +1,6 @@
+package org.assignment.crm.event;
+
+import org.assignment.crm.enums.ChangeType;
+
+public record CustomerChangedEvent(ChangeType change, Long customerId) {
+}
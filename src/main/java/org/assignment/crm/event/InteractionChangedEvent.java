@@ -0,0 +1,32 @@
+package org.assignment.crm.event;
+
+import org.assignment.crm.entity.CustomerInteraction;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.enums.InteractionType;
+
+import java.time.LocalDateTime;
+
+public record InteractionChangedEvent(ChangeType change,
+                                      Long interactionId,
+                                      Long customerId,
+                                      Long previousCustomerId,
+                                      Long userId,
+                                      InteractionType type,
+                                      LocalDateTime interactionDate) {
+
+    public static InteractionChangedEvent of(ChangeType change, CustomerInteraction interaction) {
+        Long customerId = interaction.getCustomer() != null ? interaction.getCustomer().getId() : null;
+        return of(change, customerId, interaction);
+    }
+
+    public static InteractionChangedEvent of(ChangeType change, Long previousCustomerId, CustomerInteraction interaction) {
+        return new InteractionChangedEvent(
+                change,
+                interaction.getId(),
+                interaction.getCustomer() != null ? interaction.getCustomer().getId() : null,
+                previousCustomerId,
+                interaction.getPerformedBy() != null ? interaction.getPerformedBy().getId() : null,
+                interaction.getType(),
+                interaction.getInteractionDate());
+    }
+}
@@ -0,0 +1,18 @@
+package org.assignment.crm.event;
+
+import org.assignment.crm.enums.ChangeType;
+
+public record SaleChangedEvent(ChangeType change, SaleSnapshot previous, SaleSnapshot current) {
+
+    public static SaleChangedEvent created(SaleSnapshot current) {
+        return new SaleChangedEvent(ChangeType.CREATED, null, current);
+    }
+
+    public static SaleChangedEvent updated(SaleSnapshot previous, SaleSnapshot current) {
+        return new SaleChangedEvent(ChangeType.UPDATED, previous, current);
+    }
+
+    public static SaleChangedEvent deleted(SaleSnapshot previous) {
+        return new SaleChangedEvent(ChangeType.DELETED, previous, null);
+    }
+}
@@ -0,0 +1,25 @@
+package org.assignment.crm.event;
+
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.enums.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SaleSnapshot(Long saleId,
+                           Long customerId,
+                           Long salesRepId,
+                           BigDecimal amount,
+                           LocalDateTime saleDate,
+                           SaleStatus status) {
+
+    public static SaleSnapshot of(Sale sale) {
+        return new SaleSnapshot(
+                sale.getId(),
+                sale.getCustomer() != null ? sale.getCustomer().getId() : null,
+                sale.getSalesRep() != null ? sale.getSalesRep().getId() : null,
+                sale.getAmount(),
+                sale.getSaleDate(),
+                sale.getStatus());
+    }
+}
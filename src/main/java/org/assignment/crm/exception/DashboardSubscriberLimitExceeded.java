@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class DashboardSubscriberLimitExceeded extends RuntimeException {
+    public DashboardSubscriberLimitExceeded(String message) {
+        super(message);
+    }
+}
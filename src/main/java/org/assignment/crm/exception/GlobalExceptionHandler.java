@@ -1,6 +1,7 @@
 package org.assignment.crm.exception;
 
 import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -44,6 +45,47 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(ReportJobNotFound.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobNotFound(ReportJobNotFound ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ReportJobLimitExceeded.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobLimitExceeded(ReportJobLimitExceeded ex) {
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidReportJobRequest.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidReportJobRequest(InvalidReportJobRequest ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPageRequest.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPageRequest(InvalidPageRequest ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBulkRequest.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBulkRequest(InvalidBulkRequest ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(SegmentationInProgress.class)
+    public ResponseEntity<Map<String, Object>> handleSegmentationInProgress(SegmentationInProgress ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(ManagerCycleDetected.class)
+    public ResponseEntity<Map<String, Object>> handleManagerCycleDetected(ManagerCycleDetected ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Stream clients only accept text/event-stream, which the JSON error body cannot be written as.
+    @ExceptionHandler(DashboardSubscriberLimitExceeded.class)
+    public ResponseEntity<Map<String, Object>> handleDashboardSubscriberLimitExceeded(DashboardSubscriberLimitExceeded ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred.");
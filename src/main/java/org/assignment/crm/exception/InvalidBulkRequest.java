@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class InvalidBulkRequest extends RuntimeException {
+    public InvalidBulkRequest(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class InvalidPageRequest extends RuntimeException {
+    public InvalidPageRequest(String message) {
+        super(message);
+    }
+}
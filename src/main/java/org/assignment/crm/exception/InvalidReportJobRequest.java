@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class InvalidReportJobRequest extends RuntimeException {
+    public InvalidReportJobRequest(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class ManagerCycleDetected extends RuntimeException {
+    public ManagerCycleDetected(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class ReportJobLimitExceeded extends RuntimeException {
+    public ReportJobLimitExceeded(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class ReportJobNotFound extends RuntimeException {
+    public ReportJobNotFound(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.assignment.crm.exception;
+
+public class SegmentationInProgress extends RuntimeException {
+    public SegmentationInProgress(String message) {
+        super(message);
+    }
+}
@@ -1,18 +1,68 @@
 package org.assignment.crm.repository;
 
+import org.assignment.crm.dto.CustomerInteractionCountRow;
+import org.assignment.crm.dto.InteractionSummary;
 import org.assignment.crm.entity.CustomerInteraction;
 import org.assignment.crm.enums.InteractionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerInteractionRepository extends JpaRepository<CustomerInteraction,Long> {
-    List<CustomerInteraction> findCustomerInteractionByType(InteractionType type);
+    @Override
+    @EntityGraph(CustomerInteraction.WITH_PARTIES)
+    Optional<CustomerInteraction> findById(Long id);
 
-    List<CustomerInteraction> findCustomerInteractionByCustomer_Id(Long customerId);
+    String SUMMARY_SELECT = "select new org.assignment.crm.dto.InteractionSummary(i.id, i.type, i.interactionDate, " +
+            "i.notes, c.id, concat(c.firstName, ' ', c.lastName), u.id, concat(u.firstname, ' ', u.lastName)) " +
+            "from CustomerInteraction i left join i.customer c left join i.performedBy u ";
 
-    List<CustomerInteraction> findCustomerInteractionByPerformedBy_Id(long performedById);
+    @Query(SUMMARY_SELECT + "order by i.interactionDate desc")
+    List<InteractionSummary> findRecentSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where i.id > :afterId order by i.id")
+    List<InteractionSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where i.customer.id = :customerId and i.id > :afterId order by i.id")
+    List<InteractionSummary> findSummariesByCustomerAfter(@Param("customerId") long customerId,
+                                                          @Param("afterId") long afterId,
+                                                          Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where i.performedBy.id = :performedById and i.id > :afterId order by i.id")
+    List<InteractionSummary> findSummariesByPerformerAfter(@Param("performedById") long performedById,
+                                                           @Param("afterId") long afterId,
+                                                           Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where i.type = :type and i.id > :afterId order by i.id")
+    List<InteractionSummary> findSummariesByTypeAfter(@Param("type") InteractionType type,
+                                                      @Param("afterId") long afterId,
+                                                      Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where i.customer.id = :customerId order by i.id")
+    List<InteractionSummary> findSummariesByCustomer(@Param("customerId") long customerId);
+
+    long countByPerformedBy_Id(long performedById);
+
+    long countByPerformedBy_IdIn(Collection<Long> performedByIds);
+
+    long countByCustomer_Id(long customerId);
+
+    long countByType(InteractionType type);
+
+    @Query("select count(i) from CustomerInteraction i where i.interactionDate >= :from and i.interactionDate < :to")
+    long countByInteractionDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select c.id as customerId, count(i) as interactionCount from CustomerInteraction i join i.customer c " +
+            "where c.id between :fromId and :toId group by c.id")
+    List<CustomerInteractionCountRow> countByCustomerBetween(@Param("fromId") long fromId, @Param("toId") long toId);
 }
 
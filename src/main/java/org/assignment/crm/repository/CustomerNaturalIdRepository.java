@@ -0,0 +1,10 @@
+package org.assignment.crm.repository;
+
+import org.assignment.crm.entity.Customer;
+
+import java.util.Optional;
+
+public interface CustomerNaturalIdRepository {
+
+    Optional<Customer> findCustomerByEmail(String email);
+}
@@ -1,14 +1,47 @@
 package org.assignment.crm.repository;
 
+import org.assignment.crm.dto.CustomerSegmentCountRow;
+import org.assignment.crm.dto.CustomerStatusCountRow;
 import org.assignment.crm.entity.Customer;
+import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer,Long> {
+public interface CustomerRepository extends JpaRepository<Customer,Long>, CustomerNaturalIdRepository {
 
-    Optional<Customer> findCustomerByEmail(String email);
+    List<Customer> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
 
+    List<Customer> findByValueSegmentAndIdGreaterThanOrderByIdAsc(CustomerValueSegment valueSegment, long afterId, Pageable pageable);
+
+    List<Customer> findByStatusAndIdGreaterThanOrderByIdAsc(CustomerStatus status, long afterId, Pageable pageable);
+
+    long countByStatus(CustomerStatus status);
+
+    @Query("select count(c) from Customer c where c.createdAt >= :from and c.createdAt < :to")
+    long countByCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select c.id from Customer c where c.id > :afterId order by c.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select c.valueSegment as segment, count(c) as customerCount from Customer c group by c.valueSegment")
+    List<CustomerSegmentCountRow> countByValueSegment();
+
+    @Query("select c.status as status, count(c) as customerCount from Customer c group by c.status")
+    List<CustomerStatusCountRow> countGroupedByStatus();
+
+    @Modifying
+    @Query("update Customer c set c.valueSegment = :segment, c.segmentUpdatedAt = :updatedAt where c.id in :ids")
+    int updateValueSegment(@Param("segment") CustomerValueSegment segment,
+                           @Param("updatedAt") LocalDateTime updatedAt,
+                           @Param("ids") Collection<Long> ids);
 }
@@ -1,20 +1,115 @@
 package org.assignment.crm.repository;
 
+import jakarta.persistence.QueryHint;
+import org.assignment.crm.dto.CustomerRevenueRow;
+import org.assignment.crm.dto.DailySalesRow;
+import org.assignment.crm.dto.SaleColumnRow;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.SalesTotalRow;
 import org.assignment.crm.entity.Sale;
 import org.assignment.crm.enums.SaleStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale,Long> {
-    List<Sale> findSaleBySalesRep_Id(long salesRepId);
+    // Single-sale reads back the detail view, which shows the customer and rep, so both come in the same select.
+    @Override
+    @EntityGraph(Sale.WITH_PARTIES)
+    Optional<Sale> findById(Long id);
 
-    List<Sale> findSaleByCustomer_Id(long customerId);
+    String SUMMARY_SELECT = "select new org.assignment.crm.dto.SaleSummary(s.id, s.amount, s.saleDate, s.status, " +
+            "s.description, c.id, concat(c.firstName, ' ', c.lastName), r.id, concat(r.firstname, ' ', r.lastName)) " +
+            "from Sale s left join s.customer c left join s.salesRep r ";
 
-    List<Sale> findSaleByStatus(SaleStatus status);
+    @Query(SUMMARY_SELECT + "where s.id > :afterId order by s.id")
+    List<SaleSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
 
-    List<Sale> getSalesBySalesRep_Id(long salesRepId);
-}
+    @Query(SUMMARY_SELECT + "where s.salesRep.id = :salesRepId and s.id > :afterId order by s.id")
+    List<SaleSummary> findSummariesBySalesRepAfter(@Param("salesRepId") long salesRepId,
+                                                   @Param("afterId") long afterId,
+                                                   Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where s.customer.id = :customerId and s.id > :afterId order by s.id")
+    List<SaleSummary> findSummariesByCustomerAfter(@Param("customerId") long customerId,
+                                                   @Param("afterId") long afterId,
+                                                   Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where s.status = :status and s.id > :afterId order by s.id")
+    List<SaleSummary> findSummariesByStatusAfter(@Param("status") SaleStatus status,
+                                                 @Param("afterId") long afterId,
+                                                 Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where s.customer.id = :customerId order by s.id")
+    List<SaleSummary> findSummariesByCustomer(@Param("customerId") long customerId);
+
+    @Query(SUMMARY_SELECT + "where s.id in :ids")
+    List<SaleSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "order by s.saleDate desc")
+    List<SaleSummary> findRecentSummaries(Pageable pageable);
+
+    long countBySalesRep_Id(long salesRepId);
+
+    long countByCustomer_Id(long customerId);
+
+    long countByStatus(SaleStatus status);
+
+    @Query("select count(s) as saleCount, coalesce(sum(s.amount), 0) as salesValue from Sale s where s.salesRep.id in :salesRepIds")
+    SalesTotalRow sumBySalesRepIds(@Param("salesRepIds") Collection<Long> salesRepIds);
 
+    @Query("select count(s) from Sale s where s.saleDate >= :from and s.saleDate < :to")
+    long countBySaleDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select count(s) from Sale s where s.salesRep.id = :salesRepId and s.saleDate >= :from and s.saleDate < :to")
+    long countBySalesRepAndSaleDateBetween(@Param("salesRepId") long salesRepId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Query("select count(distinct s.customer.id) from Sale s where s.saleDate > :since")
+    long countDistinctCustomersWithSaleAfter(@Param("since") LocalDateTime since);
+
+    @Query("select coalesce(sum(s.amount), 0) from Sale s")
+    BigDecimal sumAllAmounts();
+
+    @Query(SUMMARY_SELECT +
+            "where (:from is null or s.saleDate >= :from) and (:to is null or s.saleDate < :to) " +
+            "order by s.amount desc")
+    List<SaleSummary> findTopByAmount(@Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               Pageable pageable);
+
+    @Query("select cast(s.saleDate as LocalDate) as saleDay, s.status as status, r.id as salesRepId, " +
+            "count(s) as saleCount, sum(s.amount) as revenue " +
+            "from Sale s left join s.salesRep r " +
+            "group by cast(s.saleDate as LocalDate), s.status, r.id")
+    List<DailySalesRow> aggregateByDayStatusAndRep();
+
+    int STREAM_FETCH_SIZE = 500;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "order by s.id")
+    Stream<SaleSummary> streamAllSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select s.id as id, s.amount as amount, s.saleDate as saleDate, s.salesRep.id as salesRepId, " +
+            "s.customer.id as customerId, s.status as status from Sale s")
+    Stream<SaleColumnRow> streamColumnRows();
+
+    @Query("select c.id as customerId, sum(s.amount) as revenue from Sale s join s.customer c " +
+            "where c.id between :fromId and :toId group by c.id")
+    List<CustomerRevenueRow> sumRevenueByCustomerBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,66 @@
+package org.assignment.crm.repository;
+
+import jakarta.persistence.QueryHint;
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.entity.SaleRollup;
+import org.assignment.crm.entity.SaleRollupId;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Repository
+public interface SaleRollupRepository extends JpaRepository<SaleRollup, SaleRollupId> {
+
+    String TREND_QUERY = "select r.periodStart as periodStart, r.status as status, " +
+            "sum(r.saleCount) as saleCount, sum(r.revenue) as revenue " +
+            "from SaleRollup r " +
+            "where r.granularity = :granularity " +
+            "and (:from is null or r.periodStart >= :from) " +
+            "and (:to is null or r.periodStart <= :to) " +
+            "group by r.periodStart, r.status " +
+            "order by r.periodStart";
+
+    // Naming the table it writes stops Hibernate from clearing every second-level cache region after each upsert.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sale_rollups"))
+    @Query(value = "insert into sale_rollups " +
+            "(granularity, period_start, status, sales_rep_id, period_year, period_month, sale_count, revenue) " +
+            "values (:granularity, :periodStart, :status, :salesRepId, :periodYear, :periodMonth, :saleCount, :revenue) " +
+            "on duplicate key update sale_count = sale_count + :saleCount, revenue = revenue + :revenue",
+            nativeQuery = true)
+    int upsertIncrement(@Param("granularity") String granularity,
+                        @Param("periodStart") LocalDate periodStart,
+                        @Param("status") String status,
+                        @Param("salesRepId") long salesRepId,
+                        @Param("periodYear") int periodYear,
+                        @Param("periodMonth") int periodMonth,
+                        @Param("saleCount") long saleCount,
+                        @Param("revenue") BigDecimal revenue);
+
+    @Query(TREND_QUERY)
+    Stream<SalesTrendRow> streamTrend(@Param("granularity") RollupGranularity granularity,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from SaleRollup r where r.granularity = :granularity and r.periodStart = :periodStart " +
+            "and r.status = :status and r.salesRepId = :salesRepId and r.saleCount <= 0")
+    int deleteEmpty(@Param("granularity") RollupGranularity granularity,
+                    @Param("periodStart") LocalDate periodStart,
+                    @Param("status") SaleStatus status,
+                    @Param("salesRepId") long salesRepId);
+
+    @Modifying
+    @Query("delete from SaleRollup r")
+    int deleteAllRollups();
+}
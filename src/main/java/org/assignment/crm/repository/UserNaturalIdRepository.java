@@ -0,0 +1,10 @@
+package org.assignment.crm.repository;
+
+import org.assignment.crm.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    Optional<User> findUserByUserName(String userName);
+}
@@ -0,0 +1,28 @@
+package org.assignment.crm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.assignment.crm.entity.User;
+import org.hibernate.Session;
+import org.hibernate.graph.RootGraph;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// A derived query would always go to the database; loading by natural id resolves the user name through the
+// user-names cache region and the user (and its manager) through the users region.
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Optional<User> findUserByUserName(String userName) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .withLoadGraph((RootGraph<User>) entityManager.getEntityGraph(User.WITH_MANAGER))
+                .loadOptional(userName);
+    }
+}
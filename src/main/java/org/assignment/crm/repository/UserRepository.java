@@ -1,21 +1,67 @@
 package org.assignment.crm.repository;
 
+import jakarta.persistence.LockModeType;
+import org.assignment.crm.dto.TeamMemberSalesRow;
+import org.assignment.crm.dto.UserManagerRow;
+import org.assignment.crm.dto.UserRoleCountRow;
 import org.assignment.crm.entity.User;
 import org.assignment.crm.enums.UserRole;
+import org.assignment.crm.enums.UserStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User,Long> {
+public interface UserRepository extends JpaRepository<User,Long>, UserNaturalIdRepository {
 
-    Optional<User> findUserByUserName(String userName);
+    // User responses show the direct manager; one level is fetched with the user, anything above it stays a reference.
+    @Override
+    @EntityGraph(User.WITH_MANAGER)
+    Optional<User> findById(Long id);
 
+    @Override
+    @EntityGraph(User.WITH_MANAGER)
+    List<User> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(User.WITH_MANAGER)
     Optional<User> findUserByEmail(String Email);
 
     List<User> findUserByManager_Id(long managerId);
 
     List<User> findByRole(UserRole role);
+
+    @EntityGraph(User.WITH_MANAGER)
+    List<User> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    long countByRole(UserRole role);
+
+    long countByStatus(UserStatus status);
+
+    long countByManager_Id(long managerId);
+
+    @Query("select u.role as role, count(u) as userCount from User u group by u.role")
+    List<UserRoleCountRow> countGroupedByRole();
+
+    @Query("select u.id as id, u.firstname as firstname, u.lastName as lastName, u.role as role, " +
+            "count(s.id) as saleCount, coalesce(sum(s.amount), 0) as salesValue " +
+            "from User u left join Sale s on s.salesRep = u " +
+            "where u.manager.id = :managerId " +
+            "group by u.id, u.firstname, u.lastName, u.role " +
+            "order by u.id")
+    List<TeamMemberSalesRow> findTeamSalesByManager(@Param("managerId") long managerId);
+
+    @Query("select u.id as id, m.id as managerId from User u left join u.manager m")
+    List<UserManagerRow> findAllManagerLinks();
+
+    // Reads the committed manager_id and locks the row until the transaction ends; null when there is none.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.manager.id from User u where u.id = :userId")
+    Long lockManagerIdOf(@Param("userId") long userId);
 }
@@ -1,9 +1,14 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.InteractionSummary;
+import org.assignment.crm.dto.KeysetPage;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.Customer;
 import org.assignment.crm.entity.CustomerInteraction;
 import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.ChangeType;
 import org.assignment.crm.enums.InteractionType;
+import org.assignment.crm.event.InteractionChangedEvent;
 import org.assignment.crm.exception.CustomerNotFound;
 import org.assignment.crm.exception.CustomerInteractionNotFound;
 import org.assignment.crm.exception.UserNotFound;
@@ -13,6 +18,8 @@ import org.assignment.crm.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +40,9 @@ public class CustomerInteractionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public CustomerInteraction addCustomerInteraction(CustomerInteraction customerInteraction) {
         logger.info("Creating new customer interaction of type: {}", customerInteraction.getType());
@@ -60,6 +70,7 @@ public class CustomerInteractionService {
             customerInteraction.setUpdateTime(LocalDateTime.now());
 
             CustomerInteraction savedInteraction = this.customerInteractionRepository.save(customerInteraction);
+            eventPublisher.publishEvent(InteractionChangedEvent.of(ChangeType.CREATED, savedInteraction));
             logger.info("Successfully created customer interaction with ID: {} of type: {}",
                     savedInteraction.getId(), savedInteraction.getType());
 
@@ -72,11 +83,12 @@ public class CustomerInteractionService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerInteraction> getAllCustomerInteractions() {
-        logger.info("Retrieving all customer interactions");
+    public KeysetPage<InteractionSummary> getAllCustomerInteractions(KeysetPageRequest page) {
+        logger.info("Retrieving customer interactions after ID: {}", page.afterId());
         try {
-            List<CustomerInteraction> interactions = this.customerInteractionRepository.findAll();
-            logger.info("Successfully retrieved {} customer interactions", interactions.size());
+            KeysetPage<InteractionSummary> interactions = KeysetPage.of(customerInteractionRepository.findSummariesAfter(
+                    page.afterId(), page.fetchPage()), page, InteractionSummary::id);
+            logger.info("Successfully retrieved {} customer interactions", interactions.items().size());
             return interactions;
         } catch (Exception e) {
             logger.error("Error retrieving all customer interactions: {}", e.getMessage(), e);
@@ -104,15 +116,16 @@ public class CustomerInteractionService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerInteraction> getInteractionsByCustomerId(long customer_id) {
+    public KeysetPage<InteractionSummary> getInteractionsByCustomerId(long customer_id, KeysetPageRequest page) {
         logger.info("Retrieving interactions for customer ID: {}", customer_id);
         try {
             Customer customer = customerRepository.findById(customer_id)
                     .orElseThrow(() -> new CustomerNotFound("Customer not found with this id"));
 
-            List<CustomerInteraction> interactions = customerInteractionRepository.findCustomerInteractionByCustomer_Id(customer_id);
+            KeysetPage<InteractionSummary> interactions = KeysetPage.of(customerInteractionRepository.findSummariesByCustomerAfter(
+                    customer_id, page.afterId(), page.fetchPage()), page, InteractionSummary::id);
             logger.info("Successfully retrieved {} interactions for customer ID: {} (email: {})",
-                    interactions.size(), customer_id, customer.getEmail());
+                    interactions.items().size(), customer_id, customer.getEmail());
 
             return interactions;
         } catch (CustomerNotFound e) {
@@ -125,15 +138,24 @@ public class CustomerInteractionService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerInteraction> getInteractionsByUserId(long user_id) {
+    public List<InteractionSummary> findInteractionsByCustomerId(long customerId) {
+        logger.debug("Retrieving interactions for customer ID {} without existence check", customerId);
+        List<InteractionSummary> interactions = customerInteractionRepository.findSummariesByCustomer(customerId);
+        logger.debug("Retrieved {} interactions for customer ID: {}", interactions.size(), customerId);
+        return interactions;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<InteractionSummary> getInteractionsByUserId(long user_id, KeysetPageRequest page) {
         logger.info("Retrieving interactions performed by user ID: {}", user_id);
         try {
             User user = userRepository.findById(user_id)
                     .orElseThrow(() -> new UserNotFound("User not found with this id"));
 
-            List<CustomerInteraction> interactions = customerInteractionRepository.findCustomerInteractionByPerformedBy_Id(user_id);
+            KeysetPage<InteractionSummary> interactions = KeysetPage.of(customerInteractionRepository.findSummariesByPerformerAfter(
+                    user_id, page.afterId(), page.fetchPage()), page, InteractionSummary::id);
             logger.info("Successfully retrieved {} interactions performed by user ID: {} (username: {})",
-                    interactions.size(), user_id, user.getUserName());
+                    interactions.items().size(), user_id, user.getUserName());
 
             return interactions;
         } catch (UserNotFound e) {
@@ -146,11 +168,12 @@ public class CustomerInteractionService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerInteraction> getInteractionsByType(InteractionType type) {
+    public KeysetPage<InteractionSummary> getInteractionsByType(InteractionType type, KeysetPageRequest page) {
         logger.info("Retrieving interactions by type: {}", type);
         try {
-            List<CustomerInteraction> interactions = customerInteractionRepository.findCustomerInteractionByType(type);
-            logger.info("Successfully retrieved {} interactions of type: {}", interactions.size(), type);
+            KeysetPage<InteractionSummary> interactions = KeysetPage.of(customerInteractionRepository.findSummariesByTypeAfter(
+                    type, page.afterId(), page.fetchPage()), page, InteractionSummary::id);
+            logger.info("Successfully retrieved {} interactions of type: {}", interactions.items().size(), type);
             return interactions;
         } catch (Exception e) {
             logger.error("Error retrieving interactions by type {}: {}", type, e.getMessage(), e);
@@ -166,6 +189,7 @@ public class CustomerInteractionService {
                     .orElseThrow(() -> new CustomerInteractionNotFound("Customer Interaction with this ID is not found!"));
 
             logger.debug("Found existing interaction ID: {} of type: {}", interaction_id, interaction.getType());
+            Long previousCustomerId = interaction.getCustomer() != null ? interaction.getCustomer().getId() : null;
 
             if (existingInteraction.getType() != null) {
                 logger.debug("Updating interaction type from '{}' to '{}' for ID: {}",
@@ -202,6 +226,7 @@ public class CustomerInteractionService {
 
             interaction.setUpdateTime(LocalDateTime.now());
             CustomerInteraction updatedInteraction = this.customerInteractionRepository.save(interaction);
+            eventPublisher.publishEvent(InteractionChangedEvent.of(ChangeType.UPDATED, previousCustomerId, updatedInteraction));
 
             logger.info("Successfully updated customer interaction with ID: {} of type: {}",
                     interaction_id, updatedInteraction.getType());
@@ -226,6 +251,7 @@ public class CustomerInteractionService {
             logger.debug("Found interaction to delete: ID {} of type: {}", interaction_id, interaction.getType());
 
             this.customerInteractionRepository.delete(interaction);
+            eventPublisher.publishEvent(InteractionChangedEvent.of(ChangeType.DELETED, interaction));
             logger.info("Successfully deleted customer interaction with ID: {} of type: {}",
                     interaction_id, interaction.getType());
         } catch (CustomerInteractionNotFound e) {
@@ -251,14 +277,11 @@ public class CustomerInteractionService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerInteraction> getRecentInteractions(int limit) {
+    public List<InteractionSummary> getRecentInteractions(int limit) {
         logger.info("Retrieving {} most recent interactions", limit);
         try {
-            List<CustomerInteraction> allInteractions = customerInteractionRepository.findAll();
-            List<CustomerInteraction> recentInteractions = allInteractions.stream()
-                    .sorted((a, b) -> b.getInteractionDate().compareTo(a.getInteractionDate()))
-                    .limit(limit)
-                    .toList();
+            List<InteractionSummary> recentInteractions =
+                    customerInteractionRepository.findRecentSummaries(PageRequest.of(0, limit));
 
             logger.info("Successfully retrieved {} recent interactions", recentInteractions.size());
             return recentInteractions;
@@ -0,0 +1,158 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.SchedulingConfiguration;
+import org.assignment.crm.dto.CustomerInteractionCountRow;
+import org.assignment.crm.dto.CustomerRevenueRow;
+import org.assignment.crm.dto.CustomerSegmentCountRow;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.assignment.crm.exception.SegmentationInProgress;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class CustomerSegmentationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSegmentationService.class);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    @Qualifier(SchedulingConfiguration.SEGMENTATION_EXECUTOR)
+    private Executor segmentationExecutor;
+
+    @Value("${crm.segmentation.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${crm.segmentation.cron:0 0 2 * * *}")
+    public void scheduledRecompute() {
+        try {
+            recomputeAll();
+        } catch (SegmentationInProgress e) {
+            logger.warn("Skipping scheduled customer segmentation: {}", e.getMessage());
+        }
+    }
+
+    public Map<CustomerValueSegment, Long> recomputeAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new SegmentationInProgress("Customer segmentation is already running");
+        }
+        LocalDateTime runAt = LocalDateTime.now();
+        logger.info("Recomputing customer value segments in chunks of {}", chunkSize);
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            List<CompletableFuture<Map<CustomerValueSegment, Long>>> chunks = new ArrayList<>();
+
+            long afterId = 0;
+            List<Long> ids = customerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            while (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> segmentChunk(chunk, runAt)), segmentationExecutor));
+                afterId = chunk.get(chunk.size() - 1);
+                ids = customerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            }
+
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+            Map<CustomerValueSegment, Long> totals = new EnumMap<>(CustomerValueSegment.class);
+            for (CompletableFuture<Map<CustomerValueSegment, Long>> chunk : chunks) {
+                chunk.join().forEach((segment, count) -> totals.merge(segment, count, Long::sum));
+            }
+
+            dataVersionService.bump();
+            logger.info("Recomputed customer value segments for {} chunks: {}", chunks.size(), totals);
+            return totals;
+        } catch (Exception e) {
+            logger.error("Error recomputing customer value segments: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<CustomerValueSegment, Long> getSegmentCounts() {
+        logger.info("Counting customers by value segment");
+        try {
+            Map<CustomerValueSegment, Long> counts = new EnumMap<>(CustomerValueSegment.class);
+            for (CustomerSegmentCountRow row : customerRepository.countByValueSegment()) {
+                if (row.getSegment() != null) {
+                    counts.put(row.getSegment(), row.getCustomerCount());
+                }
+            }
+            logger.info("Customer value segment counts: {}", counts);
+            return counts;
+        } catch (Exception e) {
+            logger.error("Error counting customers by value segment: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private Map<CustomerValueSegment, Long> segmentChunk(List<Long> ids, LocalDateTime runAt) {
+        long fromId = ids.get(0);
+        long toId = ids.get(ids.size() - 1);
+        logger.debug("Segmenting customers {} to {}", fromId, toId);
+
+        Map<Long, BigDecimal> revenueByCustomer = new HashMap<>();
+        for (CustomerRevenueRow row : saleRepository.sumRevenueByCustomerBetween(fromId, toId)) {
+            revenueByCustomer.put(row.getCustomerId(), row.getRevenue());
+        }
+        Map<Long, Long> interactionsByCustomer = new HashMap<>();
+        for (CustomerInteractionCountRow row : customerInteractionRepository.countByCustomerBetween(fromId, toId)) {
+            interactionsByCustomer.put(row.getCustomerId(), row.getInteractionCount());
+        }
+
+        Map<CustomerValueSegment, List<Long>> idsBySegment = new EnumMap<>(CustomerValueSegment.class);
+        for (Long id : ids) {
+            BigDecimal revenue = revenueByCustomer.get(id);
+            CustomerValueSegment segment = CustomerValueSegment.classify(
+                    revenue != null ? revenue : BigDecimal.ZERO,
+                    interactionsByCustomer.getOrDefault(id, 0L));
+            idsBySegment.computeIfAbsent(segment, key -> new ArrayList<>()).add(id);
+        }
+
+        Map<CustomerValueSegment, Long> counts = new EnumMap<>(CustomerValueSegment.class);
+        idsBySegment.forEach((segment, segmentIds) -> {
+            customerRepository.updateValueSegment(segment, runAt, segmentIds);
+            counts.put(segment, (long) segmentIds.size());
+        });
+        return counts;
+    }
+}
@@ -1,12 +1,18 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.KeysetPage;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.Customer;
+import org.assignment.crm.enums.ChangeType;
 import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.assignment.crm.event.CustomerChangedEvent;
 import org.assignment.crm.exception.CustomerNotFound;
 import org.assignment.crm.repository.CustomerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +28,9 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public Customer createCustomer(Customer customer) {
         logger.info("Creating new customer with email: {}", customer.getEmail());
@@ -33,6 +42,7 @@ public class CustomerService {
             logger.debug("Set default status ACTIVE for new customer: {}", customer.getEmail());
 
             Customer savedCustomer = customerRepository.save(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(ChangeType.CREATED, savedCustomer.getId()));
             logger.info("Successfully created customer with ID: {} and email: {}",
                     savedCustomer.getId(), savedCustomer.getEmail());
 
@@ -44,11 +54,12 @@ public class CustomerService {
     }
 
     @Transactional(readOnly = true)
-    public List<Customer> findAll() {
-        logger.info("Retrieving all customers");
+    public KeysetPage<Customer> findAll(KeysetPageRequest page) {
+        logger.info("Retrieving customers after ID: {}", page.afterId());
         try {
-            List<Customer> customers = this.customerRepository.findAll();
-            logger.info("Successfully retrieved {} customers", customers.size());
+            KeysetPage<Customer> customers = KeysetPage.of(
+                    customerRepository.findByIdGreaterThanOrderByIdAsc(page.afterId(), page.fetchPage()), page, Customer::getId);
+            logger.info("Successfully retrieved {} customers", customers.items().size());
             return customers;
         } catch (Exception e) {
             logger.error("Error retrieving all customers: {}", e.getMessage(), e);
@@ -139,6 +150,7 @@ public class CustomerService {
 
             customer.setUpdatedAt(LocalDateTime.now());
             Customer savedCustomer = customerRepository.save(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(ChangeType.UPDATED, id));
 
             logger.info("Successfully updated customer with ID: {} and email: {}",
                     id, savedCustomer.getEmail());
@@ -164,6 +176,7 @@ public class CustomerService {
 
 
                 this.customerRepository.deleteById(id);
+                eventPublisher.publishEvent(new CustomerChangedEvent(ChangeType.DELETED, id));
                 logger.info("Successfully deleted customer with ID: {} (email: {})",
                         id, customer.getEmail());
             } else {
@@ -190,13 +203,26 @@ public class CustomerService {
     }
 
     @Transactional(readOnly = true)
-    public List<Customer> findActiveCustomers() {
+    public KeysetPage<Customer> findByValueSegment(CustomerValueSegment segment, KeysetPageRequest page) {
+        logger.info("Retrieving customers in value segment: {}", segment);
+        try {
+            KeysetPage<Customer> customers = KeysetPage.of(customerRepository.findByValueSegmentAndIdGreaterThanOrderByIdAsc(
+                    segment, page.afterId(), page.fetchPage()), page, Customer::getId);
+            logger.info("Successfully retrieved {} customers in value segment: {}", customers.items().size(), segment);
+            return customers;
+        } catch (Exception e) {
+            logger.error("Error retrieving customers in value segment {}: {}", segment, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<Customer> findActiveCustomers(KeysetPageRequest page) {
         logger.info("Retrieving active customers");
         try {
-            List<Customer> activeCustomers = customerRepository.findAll().stream()
-                    .filter(customer -> customer.getStatus() == CustomerStatus.ACTIVE)
-                    .toList();
-            logger.info("Successfully retrieved {} active customers", activeCustomers.size());
+            KeysetPage<Customer> activeCustomers = KeysetPage.of(customerRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    CustomerStatus.ACTIVE, page.afterId(), page.fetchPage()), page, Customer::getId);
+            logger.info("Successfully retrieved {} active customers", activeCustomers.items().size());
             return activeCustomers;
         } catch (Exception e) {
             logger.error("Error retrieving active customers: {}", e.getMessage(), e);
@@ -219,6 +245,7 @@ public class CustomerService {
             customer.setUpdatedAt(LocalDateTime.now());
 
             Customer updatedCustomer = customerRepository.save(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(ChangeType.UPDATED, id));
             logger.info("Successfully deactivated customer with ID: {} (email: {}), status changed from {} to {}",
                     id, customer.getEmail(), oldStatus, CustomerStatus.INACTIVE);
 
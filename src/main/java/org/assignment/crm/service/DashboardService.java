@@ -0,0 +1,229 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.CustomerStatusCountRow;
+import org.assignment.crm.dto.SalesTotalRow;
+import org.assignment.crm.dto.TeamMemberSalesRow;
+import org.assignment.crm.dto.UserRoleCountRow;
+import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.UserRole;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.assignment.crm.config.CacheConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
+    // The part of a dashboard that is the same for everyone holding the role; sync makes concurrent misses share one load.
+    // Keys carry the data version, so a write starts fresh entries and the old ones age out on the TTL.
+    @Cacheable(cacheNames = CacheConfiguration.DASHBOARD_SNAPSHOTS, key = "#role.name() + '@' + @dataVersionService.current()", sync = true)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRoleSnapshot(UserRole role) {
+        logger.info("Building shared {} dashboard snapshot", role);
+        Map<String, Object> data = new HashMap<>();
+        switch (role) {
+            case ADMIN:
+                data.putAll(getAdminDashboardData());
+                break;
+            case MANAGER: {
+                long totalInteractions = customerInteractionRepository.count();
+                data.put("totalCustomers", customerRepository.count());
+                data.put("activeCustomers", customerRepository.countByStatus(CustomerStatus.ACTIVE));
+                data.put("totalSales", saleRepository.count());
+                data.put("totalSalesReps", userRepository.countByRole(UserRole.SALES_REP));
+                data.put("totalInteractions", totalInteractions);
+                data.put("recentInteractions", Math.min(5, totalInteractions));
+                data.put("dashboardType", "MANAGER_OVERVIEW");
+                data.put("welcomeMessage", "Welcome to the CRM Manager Dashboard! Monitor your team's performance.");
+                break;
+            }
+            case SALES_REP:
+                data.put("totalCustomers", customerRepository.count());
+                data.put("recentInteractions", Math.min(5, customerInteractionRepository.count()));
+                data.put("dashboardType", "SALES_REP_PERFORMANCE");
+                break;
+            case SUPPORT: {
+                long totalInteractions = customerInteractionRepository.count();
+                data.put("totalCustomers", customerRepository.count());
+                data.put("recentInteractions", Math.min(10, totalInteractions));
+                data.put("totalInteractions", totalInteractions);
+                data.put("dashboardType", "SUPPORT_OVERVIEW");
+                break;
+            }
+        }
+        return Collections.unmodifiableMap(data);
+    }
+
+    @Cacheable(cacheNames = CacheConfiguration.DASHBOARD_SNAPSHOTS, key = "#role.name() + ':' + #userId + '@' + @dataVersionService.current()", sync = true)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserSnapshot(UserRole role, long userId) {
+        logger.info("Building {} dashboard snapshot for user ID: {}", role, userId);
+        Map<String, Object> data = new HashMap<>();
+        switch (role) {
+            case ADMIN:
+                break;
+            case MANAGER:
+                data.putAll(getManagerTeamStats(userId));
+                break;
+            case SALES_REP: {
+                LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+                data.put("mySales", saleRepository.countBySalesRep_Id(userId));
+                data.put("myInteractions", customerInteractionRepository.countByPerformedBy_Id(userId));
+                data.put("salesThisMonth", saleRepository.countBySalesRepAndSaleDateBetween(userId, monthStart, monthStart.plusMonths(1)));
+                data.put("welcomeMessage", "Welcome to your Sales Dashboard! Track your performance and manage your customers.");
+                break;
+            }
+            case SUPPORT:
+                data.put("myInteractions", customerInteractionRepository.countByPerformedBy_Id(userId));
+                data.put("welcomeMessage", "Welcome to the Support Dashboard! Manage customer interactions and provide excellent service.");
+                break;
+        }
+        return Collections.unmodifiableMap(data);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAdminDashboardData() {
+        logger.info("Building admin dashboard counts");
+        try {
+            List<UserRoleCountRow> roleRows = userRepository.countGroupedByRole();
+            List<CustomerStatusCountRow> statusRows = customerRepository.countGroupedByStatus();
+            Map<UserRole, Long> usersByRole = new EnumMap<>(UserRole.class);
+            long totalUsers = 0;
+            for (UserRoleCountRow row : roleRows) {
+                totalUsers += row.getUserCount();
+                if (row.getRole() != null) {
+                    usersByRole.put(row.getRole(), row.getUserCount());
+                }
+            }
+            long totalCustomers = 0;
+            long activeCustomers = 0;
+            for (CustomerStatusCountRow row : statusRows) {
+                totalCustomers += row.getCustomerCount();
+                if (row.getStatus() == CustomerStatus.ACTIVE) {
+                    activeCustomers = row.getCustomerCount();
+                }
+            }
+
+            Map<String, Object> adminData = new HashMap<>();
+            adminData.put("totalCustomers", totalCustomers);
+            adminData.put("activeCustomers", activeCustomers);
+            adminData.put("totalSales", saleRepository.count());
+            adminData.put("totalUsers", totalUsers);
+            adminData.put("totalInteractions", customerInteractionRepository.count());
+
+            adminData.put("adminUsers", usersByRole.getOrDefault(UserRole.ADMIN, 0L));
+            adminData.put("managerUsers", usersByRole.getOrDefault(UserRole.MANAGER, 0L));
+            adminData.put("salesRepUsers", usersByRole.getOrDefault(UserRole.SALES_REP, 0L));
+            adminData.put("supportUsers", usersByRole.getOrDefault(UserRole.SUPPORT, 0L));
+
+            adminData.put("dashboardType", "ADMIN_OVERVIEW");
+            adminData.put("welcomeMessage", "Welcome to the CRM Admin Dashboard! You have full system access.");
+
+            logger.info("Admin dashboard counts: {} users, {} customers", totalUsers, totalCustomers);
+            return adminData;
+        } catch (Exception e) {
+            logger.error("Error building admin dashboard counts: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getManagerTeamStats(long managerId) {
+        logger.info("Building team sales stats for manager ID: {}", managerId);
+        try {
+            List<Map<String, Object>> teamStats = new ArrayList<>();
+            long teamSalesCount = 0;
+            BigDecimal teamSalesValue = BigDecimal.ZERO;
+
+            for (TeamMemberSalesRow row : userRepository.findTeamSalesByManager(managerId)) {
+                teamSalesCount += row.getSaleCount();
+                teamSalesValue = teamSalesValue.add(row.getSalesValue());
+
+                Map<String, Object> member = new HashMap<>();
+                member.put("id", row.getId());
+                member.put("name", row.getFirstname() + " " + row.getLastName());
+                member.put("role", row.getRole());
+                member.put("totalSales", row.getSaleCount());
+                member.put("totalSalesValue", row.getSalesValue());
+                teamStats.add(member);
+            }
+
+            Map<String, Object> teamData = new HashMap<>();
+            teamData.put("teamSales", teamSalesCount);
+            teamData.put("teamSalesValue", teamSalesValue);
+            teamData.put("teamStats", teamStats);
+
+            logger.info("Team of manager ID {} has {} members with {} sales", managerId, teamStats.size(), teamSalesCount);
+            return teamData;
+        } catch (Exception e) {
+            logger.error("Error building team sales stats for manager ID {}: {}", managerId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Totals for everyone under the manager at any depth: the subtree comes from the in-memory index, the sums from two queries.
+    @Cacheable(cacheNames = CacheConfiguration.DASHBOARD_SNAPSHOTS, key = "'org:' + #managerId + '@' + @dataVersionService.current()", sync = true)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getOrgRollup(long managerId) {
+        logger.info("Building org rollup for manager ID: {}", managerId);
+        try {
+            List<Long> orgIds = orgHierarchyService.getSubordinateIds(managerId);
+            long orgSales = 0;
+            BigDecimal orgSalesValue = BigDecimal.ZERO;
+            long orgInteractions = 0;
+            if (!orgIds.isEmpty()) {
+                SalesTotalRow sales = saleRepository.sumBySalesRepIds(orgIds);
+                orgSales = sales.getSaleCount();
+                orgSalesValue = sales.getSalesValue();
+                orgInteractions = customerInteractionRepository.countByPerformedBy_IdIn(orgIds);
+            }
+
+            Map<String, Object> orgData = new HashMap<>();
+            orgData.put("orgSize", orgIds.size());
+            orgData.put("orgDirectReports", orgHierarchyService.getDirectReportIds(managerId).size());
+            orgData.put("orgSales", orgSales);
+            orgData.put("orgSalesValue", orgSalesValue);
+            orgData.put("orgInteractions", orgInteractions);
+
+            logger.info("Org of manager ID {} has {} users with {} sales", managerId, orgIds.size(), orgSales);
+            return Collections.unmodifiableMap(orgData);
+        } catch (Exception e) {
+            logger.error("Error building org rollup for manager ID {}: {}", managerId, e.getMessage(), e);
+            throw e;
+        }
+    }
+}
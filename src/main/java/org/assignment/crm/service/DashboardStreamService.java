@@ -0,0 +1,197 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.DashboardExecutorConfiguration;
+import org.assignment.crm.dto.DashboardDelta;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.exception.DashboardSubscriberLimitExceeded;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private static final long RECONNECT_MILLIS = 5000;
+
+    @Autowired
+    private KpiAggregateService kpiAggregateService;
+
+    @Autowired
+    @Qualifier(DashboardExecutorConfiguration.DASHBOARD_STREAM_EXECUTOR)
+    private Executor dashboardStreamExecutor;
+
+    @Value("${crm.dashboard.stream.max-subscribers:500}")
+    private int maxSubscribers = 500;
+
+    @Value("${crm.dashboard.stream.timeout:30m}")
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    @Value("${crm.dashboard.stream.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private long sequence;
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(streamTimeout.toMillis()));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Registration and broadcasts share the monitor, so a subscriber's snapshot is queued before any later delta and
+    // deltas are queued in sequence order. Nothing here writes to the connection; the stream executor does that.
+    synchronized SseEmitter register(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            logger.warn("Rejecting dashboard stream subscriber: {} subscribers already connected", subscribers.size());
+            throw new DashboardSubscriberLimitExceeded("Too many dashboard stream subscribers; retry later");
+        }
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(error -> unsubscribe(emitter));
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("sequence", sequence);
+        snapshot.put("totals", kpiAggregateService.getTotals());
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.put(emitter, subscriber);
+        logger.info("Dashboard stream subscriber connected; {} subscribed", subscribers.size());
+        enqueue(subscriber, SseEmitter.event().name("snapshot").reconnectTime(RECONNECT_MILLIS).data(snapshot));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        SaleSnapshot previous = event.previous();
+        SaleSnapshot current = event.current();
+        BigDecimal previousAmount = previous != null && previous.amount() != null ? previous.amount() : BigDecimal.ZERO;
+        BigDecimal currentAmount = current != null && current.amount() != null ? current.amount() : BigDecimal.ZERO;
+        SaleSnapshot changed = current != null ? current : previous;
+        if (event.change() == ChangeType.UPDATED
+                && previousAmount.compareTo(currentAmount) == 0
+                && Objects.equals(previous.status(), current.status())) {
+            return;
+        }
+        broadcast(next -> new DashboardDelta(next, "sale", event.change(), changed.saleId(),
+                previous != null ? previous.status() : null,
+                current != null ? current.status() : null,
+                currentAmount.subtract(previousAmount),
+                kpiAggregateService.getTotals()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionChanged(InteractionChangedEvent event) {
+        if (event.change() == ChangeType.UPDATED) {
+            return;
+        }
+        broadcast(next -> new DashboardDelta(next, "interaction", event.change(), event.interactionId(),
+                null, null, null, kpiAggregateService.getTotals()));
+    }
+
+    @Scheduled(fixedDelayString = "${crm.dashboard.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    // Runs on the committing request thread, so it only queues the delta for each subscriber.
+    private synchronized void broadcast(LongFunction<DashboardDelta> delta) {
+        if (subscribers.isEmpty()) {
+            sequence++;
+            return;
+        }
+        DashboardDelta payload = delta.apply(++sequence);
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, SseEmitter.event().name("delta").id(Long.toString(payload.sequence())).data(payload));
+        }
+        logger.debug("Queued dashboard delta {} for {} subscribers", payload.sequence(), subscribers.size());
+    }
+
+    // A subscriber that has fallen a full queue behind is completed rather than buffered without bound; the client
+    // reconnects and starts again from a fresh snapshot.
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.pending().offer(event)) {
+            logger.warn("Dashboard stream subscriber fell {} events behind; closing its stream", queueCapacity);
+            subscribers.remove(subscriber.emitter());
+            subscriber.pending().clear();
+            subscriber.emitter().complete();
+            return;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            try {
+                dashboardStreamExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining().set(false);
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    // At most one drain runs per subscriber, which keeps its events in order; the re-check after releasing the flag
+    // picks up an event queued between the last poll and the release.
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.pending().poll()) != null) {
+                try {
+                    subscriber.emitter().send(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscriber.draining().set(false);
+                    drop(subscriber, e);
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+        } while (!subscriber.pending().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        logger.debug("Dropping dashboard stream subscriber: {}", cause.getMessage());
+        subscribers.remove(subscriber.emitter());
+        subscriber.pending().clear();
+        subscriber.emitter().completeWithError(cause);
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        Subscriber subscriber = subscribers.remove(emitter);
+        if (subscriber != null) {
+            subscriber.pending().clear();
+            logger.info("Dashboard stream subscriber disconnected; {} subscribed", subscribers.size());
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pending,
+                              AtomicBoolean draining) {
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pending) {
+            this(emitter, pending, new AtomicBoolean());
+        }
+    }
+}
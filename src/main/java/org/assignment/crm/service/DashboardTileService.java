@@ -0,0 +1,183 @@
+package org.assignment.crm.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.config.DashboardExecutorConfiguration;
+import org.assignment.crm.config.ReadYourWrites;
+import org.assignment.crm.enums.DashboardTileStatus;
+import org.assignment.crm.enums.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Builds the login dashboard from independent tiles computed concurrently. Each tile gets its own budget
+// (crm.dashboard.tiles.<tile>.timeout, falling back to crm.dashboard.tiles.timeout); a tile that misses it is shown
+// with its last good value as STALE, or as PENDING if it has none. Late tiles are not cancelled: finishing them
+// warms the snapshot caches for the next request.
+@Service
+public class DashboardTileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardTileService.class);
+
+    static final String TILE_TIMER = "crm.dashboard.tile";
+    static final String LATE_TILE_COUNTER = "crm.dashboard.tile.late";
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    @Qualifier(DashboardExecutorConfiguration.DASHBOARD_TILE_EXECUTOR)
+    private Executor dashboardTileExecutor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${crm.dashboard.tiles.timeout:1s}")
+    private Duration tileTimeout = Duration.ofSeconds(1);
+
+    public Map<String, Object> compose(UserRole role, long userId) {
+        logger.info("Composing {} dashboard tiles for user ID: {}", role, userId);
+        List<Tile> tiles = tilesFor(role, userId);
+
+        long startedAt = System.nanoTime();
+        Map<Tile, CompletableFuture<Map<String, Object>>> running = new LinkedHashMap<>();
+        for (Tile tile : tiles) {
+            running.put(tile, submit(tile));
+        }
+
+        Map<String, Object> dashboard = new HashMap<>();
+        Map<String, DashboardTileStatus> statuses = new LinkedHashMap<>();
+        for (Map.Entry<Tile, CompletableFuture<Map<String, Object>>> entry : running.entrySet()) {
+            Tile tile = entry.getKey();
+            DashboardTileStatus status = await(tile, entry.getValue(), startedAt + budgetFor(tile.name()).toNanos(), dashboard);
+            statuses.put(tile.name(), status);
+        }
+
+        boolean partial = statuses.values().stream().anyMatch(status -> status != DashboardTileStatus.READY);
+        dashboard.put("tiles", statuses);
+        dashboard.put("partial", partial);
+        if (partial) {
+            logger.warn("Served partial {} dashboard for user ID {}: {}", role, userId, statuses);
+        }
+        return dashboard;
+    }
+
+    private List<Tile> tilesFor(UserRole role, long userId) {
+        List<Tile> tiles = new ArrayList<>();
+        tiles.add(new Tile("overview", role.name(), () -> dashboardService.getRoleSnapshot(role)));
+        switch (role) {
+            case ADMIN:
+                break;
+            case MANAGER:
+                tiles.add(new Tile("team", Long.toString(userId), () -> dashboardService.getUserSnapshot(role, userId)));
+                tiles.add(new Tile("org", Long.toString(userId), () -> dashboardService.getOrgRollup(userId)));
+                break;
+            case SALES_REP:
+            case SUPPORT:
+                tiles.add(new Tile("personal", role.name() + ":" + userId, () -> dashboardService.getUserSnapshot(role, userId)));
+                break;
+        }
+        return tiles;
+    }
+
+    private CompletableFuture<Map<String, Object>> submit(Tile tile) {
+        try {
+            return CompletableFuture.supplyAsync(() -> load(tile), dashboardTileExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dashboard tile executor is saturated, skipping tile '{}'", tile.name());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<String, Object> load(Tile tile) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            Map<String, Object> data = ReadYourWrites.recompute(tile.loader());
+            cacheManager.getCache(CacheConfiguration.DASHBOARD_TILES).put(tile.cacheKey(), data);
+            return data;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TILE_TIMER)
+                    .description("Time to compute one dashboard tile")
+                    .tag("tile", tile.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private DashboardTileStatus await(Tile tile, CompletableFuture<Map<String, Object>> part, long deadline,
+                                      Map<String, Object> dashboard) {
+        DashboardTileStatus missing = DashboardTileStatus.PENDING;
+        try {
+            dashboard.putAll(part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            return DashboardTileStatus.READY;
+        } catch (TimeoutException e) {
+            logger.warn("Dashboard tile '{}' did not finish within {}", tile.name(), budgetFor(tile.name()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for dashboard tile '{}'", tile.name());
+        } catch (ExecutionException e) {
+            logger.warn("Dashboard tile '{}' failed: {}", tile.name(), e.getCause().getMessage(), e.getCause());
+            missing = DashboardTileStatus.FAILED;
+        }
+
+        Cache.ValueWrapper lastGood = cacheManager.getCache(CacheConfiguration.DASHBOARD_TILES).get(tile.cacheKey());
+        DashboardTileStatus status = lastGood != null ? DashboardTileStatus.STALE : missing;
+        if (lastGood != null) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> staleData = (Map<String, Object>) lastGood.get();
+            dashboard.putAll(staleData);
+        }
+        Counter.builder(LATE_TILE_COUNTER)
+                .description("Dashboard tiles served without a fresh value")
+                .tag("tile", tile.name())
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment();
+        return status;
+    }
+
+    private Duration budgetFor(String tile) {
+        String override = environment.getProperty("crm.dashboard.tiles." + tile + ".timeout");
+        return override != null ? DurationStyle.detectAndParse(override) : tileTimeout;
+    }
+
+    private record Tile(String name, String scope, Supplier<Map<String, Object>> loader) {
+
+        String cacheKey() {
+            return name + ":" + scope;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.event.CustomerChangedEvent;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version of everything the dashboards and reports are computed from. The boot id keeps ETags handed
+// out by an earlier process (whose counter also started at zero) from matching after a restart.
+// The counter only sees this node's commits, so ETags are only handed out when crm.etag.single-node says no other node
+// writes to the same database; otherwise another node's change would never invalidate them.
+@Service
+public class DataVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${crm.etag.single-node:false}")
+    private boolean singleNode;
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "W/\"" + bootId + "-" + version.get() + "\"";
+    }
+
+    public long bump() {
+        long next = version.incrementAndGet();
+        logger.debug("Data version is now {}", next);
+        return next;
+    }
+
+    // True when the client's If-None-Match is current; the response is then already a 304 and the caller returns nothing.
+    // Always false, and no ETag is sent, unless this is the only node.
+    public boolean checkNotModified(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return singleNode && request.checkNotModified(etag());
+    }
+
+    // For responses missing some of their data: swaps in a tag that no later poll can match, so the next poll gets a full body.
+    public void markPartial(WebRequest request) {
+        if (singleNode && request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.ETAG, "W/\"" + bootId + "-" + version.get() + "-partial\"");
+        }
+    }
+
+    // Bumped last, after the report caches are evicted, so a request that sees the new version never reads a stale cache entry.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        bump();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        bump();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionChanged(InteractionChangedEvent event) {
+        bump();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        bump();
+    }
+}
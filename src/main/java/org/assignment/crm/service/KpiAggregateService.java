@@ -0,0 +1,150 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.config.ReadYourWrites;
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.event.CustomerChangedEvent;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+@Service
+public class KpiAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KpiAggregateService.class);
+
+    static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Every applied delta bumps the stamp, so a rebuild can tell whether a write committed while it was counting.
+    private final AtomicReference<StampedTotals> totals = new AtomicReference<>(new StampedTotals(0, KpiTotals.EMPTY));
+
+    public KpiTotals getTotals() {
+        return totals.get().totals();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    // Recomputes every aggregate from the tables; used at startup and to recover from drift. The recount only replaces
+    // the totals if no delta was applied since it started: such a write may have committed after the counts were read,
+    // and overwriting would lose it for good. Each attempt reads in its own transaction so a retry sees that write, and
+    // reads as a recompute so it never counts from a replica that is missing an earlier commit.
+    @CacheEvict(cacheNames = CacheConfiguration.DASHBOARD_REPORT, allEntries = true)
+    public KpiTotals rebuild() {
+        logger.info("Rebuilding KPI aggregates from scratch");
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+                StampedTotals before = totals.get();
+                KpiTotals rebuilt = ReadYourWrites.recompute(() -> transactionTemplate.execute(status -> countAll()));
+                if (totals.compareAndSet(before, new StampedTotals(before.stamp() + 1, rebuilt))) {
+                    logger.info("Rebuilt KPI aggregates: {}", rebuilt);
+                    return rebuilt;
+                }
+                logger.debug("KPI aggregates changed during rebuild attempt {}; recounting", attempt);
+            }
+            KpiTotals current = getTotals();
+            logger.warn("KPI aggregates kept changing during {} rebuild attempts; keeping incremental totals {}",
+                    MAX_REBUILD_ATTEMPTS, current);
+            return current;
+        } catch (Exception e) {
+            logger.error("Error rebuilding KPI aggregates: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Runs before the report cache eviction so a re-cached dashboard never sees stale totals.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        BigDecimal previousAmount = event.previous() != null ? event.previous().amount() : BigDecimal.ZERO;
+        BigDecimal currentAmount = event.current() != null ? event.current().amount() : BigDecimal.ZERO;
+        BigDecimal revenueDelta = currentAmount.subtract(previousAmount);
+        long countDelta = switch (event.change()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        KpiTotals updated = apply(t -> t.withSales(countDelta, revenueDelta));
+        logger.debug("Applied sale {} to KPI aggregates: {}", event.change(), updated);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        long delta = switch (event.change()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta != 0) {
+            KpiTotals updated = apply(t -> t.withCustomers(delta));
+            logger.debug("Applied customer {} to KPI aggregates: {}", event.change(), updated);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionChanged(InteractionChangedEvent event) {
+        long delta = switch (event.change()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta != 0) {
+            KpiTotals updated = apply(t -> t.withInteractions(delta));
+            logger.debug("Applied interaction {} to KPI aggregates: {}", event.change(), updated);
+        }
+    }
+
+    private KpiTotals countAll() {
+        BigDecimal revenue = saleRepository.sumAllAmounts();
+        return new KpiTotals(
+                customerRepository.count(),
+                saleRepository.count(),
+                customerInteractionRepository.count(),
+                revenue != null ? revenue : BigDecimal.ZERO);
+    }
+
+    private KpiTotals apply(UnaryOperator<KpiTotals> delta) {
+        return totals.updateAndGet(t -> new StampedTotals(t.stamp() + 1, delta.apply(t.totals()))).totals();
+    }
+
+    private record StampedTotals(long stamp, KpiTotals totals) {
+    }
+}
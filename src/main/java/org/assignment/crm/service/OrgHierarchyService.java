@@ -0,0 +1,158 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.UserManagerRow;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.event.UserChangedEvent;
+import org.assignment.crm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory copy of the users.manager_id tree, so "everyone under X" is a walk over a map instead of one query per level.
+// Loaded once at startup and kept current from committed user changes.
+@Service
+public class OrgHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgHierarchyService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> managerOf = new HashMap<>();
+    private final Map<Long, Set<Long>> reportsOf = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        logger.info("Rebuilding org hierarchy index");
+        try {
+            List<UserManagerRow> rows = userRepository.findAllManagerLinks();
+            lock.writeLock().lock();
+            try {
+                managerOf.clear();
+                reportsOf.clear();
+                for (UserManagerRow row : rows) {
+                    link(row.getId(), row.getManagerId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Rebuilt org hierarchy index with {} users", rows.size());
+            return rows.size();
+        } catch (Exception e) {
+            logger.error("Error rebuilding org hierarchy index: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Every user below the given one at any depth, breadth first (direct reports first).
+    public List<Long> getSubordinateIds(long userId) {
+        lock.readLock().lock();
+        try {
+            Set<Long> found = new LinkedHashSet<>();
+            Deque<Long> pending = new ArrayDeque<>(reportsOf.getOrDefault(userId, Set.of()));
+            while (!pending.isEmpty()) {
+                Long next = pending.poll();
+                if (next != userId && found.add(next)) {
+                    pending.addAll(reportsOf.getOrDefault(next, Set.of()));
+                }
+            }
+            return new ArrayList<>(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> getDirectReportIds(long userId) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(reportsOf.getOrDefault(userId, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when userId sits somewhere below ancestorId; walks up the manager chain, so it costs the depth, not the subtree.
+    // Reflects committed changes only, so writes that must not create a cycle check the table instead (UserService).
+    public boolean isUnder(long userId, long ancestorId) {
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            Long current = managerOf.get(userId);
+            while (current != null && seen.add(current)) {
+                if (current == ancestorId) {
+                    return true;
+                }
+                current = managerOf.get(current);
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs before the data version bump, so a dashboard rebuilt for the new version already sees the new tree.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.change() == ChangeType.DELETED) {
+                unlink(event.userId());
+                // manager_id is ON DELETE SET NULL, so the former reports become top-level users.
+                Set<Long> orphans = reportsOf.remove(event.userId());
+                if (orphans != null) {
+                    orphans.forEach(orphan -> managerOf.put(orphan, null));
+                }
+                managerOf.remove(event.userId());
+            } else {
+                unlink(event.userId());
+                link(event.userId(), event.managerId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void link(Long userId, Long managerId) {
+        managerOf.put(userId, managerId);
+        if (managerId != null) {
+            reportsOf.computeIfAbsent(managerId, id -> new LinkedHashSet<>()).add(userId);
+        }
+    }
+
+    private void unlink(Long userId) {
+        Long previousManager = managerOf.get(userId);
+        if (previousManager != null) {
+            Set<Long> reports = reportsOf.get(previousManager);
+            if (reports != null) {
+                reports.remove(userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.event.CustomerChangedEvent;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Evicts just ahead of the data version bump in DataVersionService. The dashboard and trends reports also key on that
+// version, so clearing them only frees memory; a result computed before the write can no longer be put back where the
+// next request reads.
+@Service
+public class ReportCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        evictCustomer(customerIdOf(event.previous()));
+        evictCustomer(customerIdOf(event.current()));
+        clear(CacheConfiguration.DASHBOARD_REPORT);
+        clear(CacheConfiguration.SALES_TRENDS_REPORTS);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteractionChanged(InteractionChangedEvent event) {
+        evictCustomer(event.previousCustomerId());
+        evictCustomer(event.customerId());
+        clear(CacheConfiguration.DASHBOARD_REPORT);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        evictCustomer(event.customerId());
+        clear(CacheConfiguration.DASHBOARD_REPORT);
+    }
+
+    private void evictCustomer(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(CacheConfiguration.CUSTOMER_ACTIVITY_REPORTS);
+        if (cache != null) {
+            cache.evict(customerId);
+            logger.debug("Evicted cached activity report for customer ID: {}", customerId);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+            logger.debug("Cleared report cache '{}'", cacheName);
+        }
+    }
+
+    private Long customerIdOf(SaleSnapshot snapshot) {
+        return snapshot != null ? snapshot.customerId() : null;
+    }
+}
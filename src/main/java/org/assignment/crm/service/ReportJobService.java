@@ -0,0 +1,240 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.ReadYourWrites;
+import org.assignment.crm.config.ReportExecutorConfiguration;
+import org.assignment.crm.dto.ReportJobRequest;
+import org.assignment.crm.dto.ReportJobView;
+import org.assignment.crm.enums.ReportJobStatus;
+import org.assignment.crm.enums.ReportJobType;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.exception.InvalidReportJobRequest;
+import org.assignment.crm.exception.ReportJobLimitExceeded;
+import org.assignment.crm.exception.ReportJobNotFound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+// Jobs and their results live in this node's memory only: a poll or cancel that reaches another node answers 404,
+// so deployments with more than one node must keep a user's /api/reports/jobs requests on one node (see README).
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    @Qualifier(ReportExecutorConfiguration.REPORT_JOB_EXECUTOR)
+    private AsyncTaskExecutor reportJobExecutor;
+
+    @Value("${crm.reports.jobs.max-active-per-user:3}")
+    private int maxActiveJobsPerUser = 3;
+
+    @Value("${crm.reports.jobs.result-ttl:15m}")
+    private Duration resultTtl = Duration.ofMinutes(15);
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public synchronized ReportJobView submit(String owner, ReportJobRequest request) {
+        logger.info("User {} submitting {} report job", owner, request.type());
+        validate(request);
+
+        long activeJobs = jobs.values().stream()
+                .filter(job -> job.owner.equals(owner) && job.isActive())
+                .count();
+        if (activeJobs >= maxActiveJobsPerUser) {
+            logger.warn("User {} already has {} active report jobs (limit {})", owner, activeJobs, maxActiveJobsPerUser);
+            throw new ReportJobLimitExceeded("You already have " + activeJobs + " report jobs running, wait for one to finish");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), owner, request);
+        jobs.put(job.id, job);
+        // Taken before the executor sees the job, so the 202 always describes the job as queued.
+        ReportJobView accepted = job.view();
+        try {
+            job.future = reportJobExecutor.submit(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            logger.warn("Report job queue is full, rejecting job for user {}", owner);
+            throw new ReportJobLimitExceeded("Report job queue is full, try again later");
+        }
+
+        logger.info("Queued report job {} for user {}", job.id, owner);
+        return accepted;
+    }
+
+    public ReportJobView getJob(String owner, String jobId) {
+        logger.debug("User {} polling report job {}", owner, jobId);
+        return findJob(owner, jobId).view();
+    }
+
+    public List<ReportJobView> getJobs(String owner) {
+        return jobs.values().stream()
+                .filter(job -> job.owner.equals(owner) && !job.isExpired())
+                .sorted(Comparator.comparing((ReportJob job) -> job.submittedAt).reversed())
+                .map(ReportJob::view)
+                .toList();
+    }
+
+    public ReportJobView cancel(String owner, String jobId) {
+        ReportJob job = findJob(owner, jobId);
+        if (job.cancel(resultTtl)) {
+            Future<?> future = job.future;
+            if (future != null) {
+                future.cancel(true);
+            }
+            logger.info("Cancelled report job {} for user {}", jobId, owner);
+        } else {
+            jobs.remove(jobId);
+            logger.info("Discarded finished report job {} for user {}", jobId, owner);
+        }
+        return job.view();
+    }
+
+    @Scheduled(fixedDelayString = "${crm.reports.jobs.cleanup-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        int before = jobs.size();
+        jobs.values().removeIf(ReportJob::isExpired);
+        int purged = before - jobs.size();
+        if (purged > 0) {
+            logger.info("Purged {} expired report jobs", purged);
+        }
+    }
+
+    private void run(ReportJob job) {
+        if (!job.start()) {
+            return;
+        }
+        logger.info("Running report job {} ({})", job.id, job.request.type());
+        try {
+            Map<String, Object> result = ReadYourWrites.recompute(() -> execute(job.request));
+            if (job.complete(result, resultTtl)) {
+                logger.info("Report job {} completed", job.id);
+            }
+        } catch (Exception e) {
+            if (job.fail(e.getMessage(), resultTtl)) {
+                logger.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            }
+        }
+    }
+
+    private Map<String, Object> execute(ReportJobRequest request) {
+        return switch (request.type()) {
+            case SALES_TRENDS -> reportService.getSalesTrendsReport(request.from(), request.to(),
+                    request.granularity() != null ? request.granularity() : RollupGranularity.MONTH);
+            case CUSTOMER_ACTIVITY -> reportService.getCustomerActivityReport(request.customerId());
+        };
+    }
+
+    private void validate(ReportJobRequest request) {
+        if (request == null || request.type() == null) {
+            throw new InvalidReportJobRequest("Report job type is required");
+        }
+        if (request.type() == ReportJobType.CUSTOMER_ACTIVITY && request.customerId() == null) {
+            throw new InvalidReportJobRequest("customerId is required for a customer activity report");
+        }
+        if (request.from() != null && request.to() != null && request.from().isAfter(request.to())) {
+            throw new InvalidReportJobRequest("from must not be after to");
+        }
+    }
+
+    private ReportJob findJob(String owner, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.owner.equals(owner) || job.isExpired()) {
+            logger.warn("Report job {} not found for user {}", jobId, owner);
+            throw new ReportJobNotFound("Report job not found with this id");
+        }
+        return job;
+    }
+
+    private static final class ReportJob {
+
+        private final String id;
+        private final String owner;
+        private final ReportJobRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private volatile Future<?> future;
+        private ReportJobStatus status = ReportJobStatus.QUEUED;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private LocalDateTime expiresAt;
+        private String error;
+        private Map<String, Object> result;
+
+        private ReportJob(String id, String owner, ReportJobRequest request) {
+            this.id = id;
+            this.owner = owner;
+            this.request = request;
+        }
+
+        synchronized boolean start() {
+            if (status != ReportJobStatus.QUEUED) {
+                return false;
+            }
+            status = ReportJobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        synchronized boolean complete(Map<String, Object> result, Duration ttl) {
+            if (status != ReportJobStatus.RUNNING) {
+                return false;
+            }
+            this.result = result;
+            finish(ReportJobStatus.COMPLETED, ttl);
+            return true;
+        }
+
+        synchronized boolean fail(String error, Duration ttl) {
+            if (status != ReportJobStatus.RUNNING) {
+                return false;
+            }
+            this.error = error;
+            finish(ReportJobStatus.FAILED, ttl);
+            return true;
+        }
+
+        synchronized boolean cancel(Duration ttl) {
+            if (!isActive()) {
+                return false;
+            }
+            finish(ReportJobStatus.CANCELLED, ttl);
+            return true;
+        }
+
+        synchronized boolean isActive() {
+            return status == ReportJobStatus.QUEUED || status == ReportJobStatus.RUNNING;
+        }
+
+        synchronized boolean isExpired() {
+            return expiresAt != null && !LocalDateTime.now().isBefore(expiresAt);
+        }
+
+        synchronized ReportJobView view() {
+            return new ReportJobView(id, request.type(), status, submittedAt, startedAt, finishedAt, expiresAt, error, result);
+        }
+
+        private void finish(ReportJobStatus finalStatus, Duration ttl) {
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+            expiresAt = finishedAt.plus(ttl);
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.config.ReportExecutorConfiguration;
+import org.assignment.crm.dto.InteractionSummary;
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.SalesTrendRow;
 import org.assignment.crm.entity.Customer;
-import org.assignment.crm.entity.CustomerInteraction;
-import org.assignment.crm.entity.Sale;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.exception.CustomerNotFound;
+import org.assignment.crm.util.TopK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
@@ -28,45 +47,60 @@ public class ReportService {
     @Autowired
     private CustomerInteractionService interactionService;
 
+    @Autowired
+    private KpiAggregateService kpiAggregateService;
+
+    @Autowired
+    private SalesSnapshotService salesSnapshotService;
+
+    @Autowired
+    private SalesTrendSource salesTrendSource;
+
+    @Autowired
+    @Qualifier(ReportExecutorConfiguration.REPORT_EXECUTOR)
+    private Executor reportExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${crm.reports.activity.timeout:2s}")
+    private Duration activityReportTimeout = Duration.ofSeconds(2);
+
+    // The aggregate reports key on the data version as well as being cleared: a computation that read before a
+    // write and finishes after it stores its result under the old version, where no later request looks.
+    @Cacheable(cacheNames = CacheConfiguration.DASHBOARD_REPORT, key = "@dataVersionService.current()")
     @Transactional(readOnly = true)
     public Map<String, Object> getDashboardReport() {
         logger.info("Generating dashboard report");
         try {
             Map<String, Object> dashboard = new HashMap<>();
 
-            List<Customer> customers = customerService.findAll();
-            List<Sale> sales = saleService.getAllSales();
-            List<CustomerInteraction> interactions = interactionService.getAllCustomerInteractions();
-
-            logger.debug("Retrieved data for dashboard: {} customers, {} sales, {} interactions",
-                    customers.size(), sales.size(), interactions.size());
+            KpiTotals totals = kpiAggregateService.getTotals();
+            logger.debug("Read KPI aggregates for dashboard: {}", totals);
 
-            dashboard.put("totalCustomers", customers.size());
-            dashboard.put("totalSales", sales.size());
-            dashboard.put("totalInteractions", interactions.size());
+            dashboard.put("totalCustomers", totals.totalCustomers());
+            dashboard.put("totalSales", totals.totalSales());
+            dashboard.put("totalInteractions", totals.totalInteractions());
+            dashboard.put("totalRevenue", totals.totalRevenue());
 
-            BigDecimal totalRevenue = calculateTotalRevenue(sales);
-            dashboard.put("totalRevenue", totalRevenue);
-            logger.debug("Calculated total revenue: {}", totalRevenue);
-
-            if (!sales.isEmpty()) {
-                BigDecimal averageSale = totalRevenue.divide(BigDecimal.valueOf(sales.size()), 2, BigDecimal.ROUND_HALF_UP);
+            BigDecimal averageSale = totals.averageSaleValue();
+            if (averageSale != null) {
                 dashboard.put("averageSaleValue", averageSale);
-                logger.debug("Calculated average sale value: {}", averageSale);
+                logger.debug("Average sale value: {}", averageSale);
             } else {
                 logger.debug("No sales found, skipping average calculation");
             }
 
-            List<Sale> recentSales = getRecentSales(sales, 5);
+            List<SaleSummary> recentSales = saleService.getRecentSales(5);
             dashboard.put("recentSales", recentSales);
             logger.debug("Retrieved {} recent sales", recentSales.size());
 
-            long activeCustomers = getActiveCustomers(customers);
+            long activeCustomers = getActiveCustomers();
             dashboard.put("activeCustomers", activeCustomers);
             logger.debug("Found {} active customers", activeCustomers);
 
             logger.info("Successfully generated dashboard report with {} total customers and revenue of {}",
-                    customers.size(), totalRevenue);
+                    totals.totalCustomers(), totals.totalRevenue());
             return dashboard;
 
         } catch (Exception e) {
@@ -75,52 +109,78 @@ public class ReportService {
         }
     }
 
-    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfiguration.CUSTOMER_ACTIVITY_REPORTS, unless = "#result['partial'] == true")
     public Map<String, Object> getCustomerActivityReport(Long customerId) {
-        logger.info("Generating customer activity report for customer ID: {}", customerId);
+        logger.info("Generating customer activity report for customer ID: {} within {}", customerId, activityReportTimeout);
         try {
-            Customer customer = customerService.findById(customerId)
-                    .orElseThrow(() -> new RuntimeException("Customer not found"));
+            long deadline = System.nanoTime() + activityReportTimeout.toNanos();
 
-            logger.debug("Found customer: {} (email: {}) for activity report",
-                    customer.getFirstName() + " " + customer.getLastName(), customer.getEmail());
+            CompletableFuture<Optional<Customer>> customerPart =
+                    supplyReadOnly(() -> customerService.findById(customerId));
+            CompletableFuture<List<SaleSummary>> salesPart =
+                    supplyReadOnly(() -> saleService.findSalesByCustomerId(customerId));
+            CompletableFuture<List<InteractionSummary>> interactionsPart =
+                    supplyReadOnly(() -> interactionService.findInteractionsByCustomerId(customerId));
 
+            List<String> missingSections = new ArrayList<>();
             Map<String, Object> report = new HashMap<>();
-            report.put("customer", customer);
-
-            List<Sale> customerSales = saleService.getSaleByCustomerId(customerId);
-            report.put("totalSales", customerSales.size());
-
-            BigDecimal customerRevenue = calculateTotalRevenue(customerSales);
-            report.put("totalRevenue", customerRevenue);
-            report.put("salesHistory", customerSales);
 
-            logger.debug("Customer {} has {} sales with total revenue: {}",
-                    customerId, customerSales.size(), customerRevenue);
+            Optional<Customer> customer = awaitPart("customer", customerPart, deadline, missingSections);
+            if (customer != null && customer.isEmpty()) {
+                salesPart.cancel(true);
+                interactionsPart.cancel(true);
+                throw new CustomerNotFound("Customer not found with this id");
+            }
+            if (customer != null) {
+                logger.debug("Found customer: {} (email: {}) for activity report",
+                        customer.get().getFirstName() + " " + customer.get().getLastName(), customer.get().getEmail());
+                report.put("customer", customer.get());
+            }
 
-            List<CustomerInteraction> interactions = interactionService.getInteractionsByCustomerId(customerId);
-            report.put("totalInteractions", interactions.size());
+            List<SaleSummary> customerSales = awaitPart("sales", salesPart, deadline, missingSections);
+            if (customerSales != null) {
+                BigDecimal customerRevenue = calculateTotalRevenue(customerSales);
+                report.put("totalSales", customerSales.size());
+                report.put("totalRevenue", customerRevenue);
+                report.put("salesHistory", customerSales);
 
-            Map<String, Long> interactionsByType = groupInteractionsByType(interactions);
-            report.put("interactionsByType", interactionsByType);
+                logger.debug("Customer {} has {} sales with total revenue: {}",
+                        customerId, customerSales.size(), customerRevenue);
+            }
 
-            List<CustomerInteraction> recentInteractions = getRecentInteractions(interactions, 5);
-            report.put("recentInteractions", recentInteractions);
+            List<InteractionSummary> interactions = awaitPart("interactions", interactionsPart, deadline, missingSections);
+            if (interactions != null) {
+                Map<String, Long> interactionsByType = groupInteractionsByType(interactions);
+                report.put("totalInteractions", interactions.size());
+                report.put("interactionsByType", interactionsByType);
+                report.put("recentInteractions", getRecentInteractions(interactions, 5));
 
-            logger.debug("Customer {} has {} interactions grouped by type: {}",
-                    customerId, interactions.size(), interactionsByType);
+                logger.debug("Customer {} has {} interactions grouped by type: {}",
+                        customerId, interactions.size(), interactionsByType);
+            }
 
-            LocalDateTime lastActivity = getLastActivityDate(customerSales, interactions);
+            LocalDateTime lastActivity = getLastActivityDate(
+                    customerSales != null ? customerSales : List.of(),
+                    interactions != null ? interactions : List.of());
             report.put("lastActivity", lastActivity);
 
-            String customerValue = calculateCustomerValue(customerSales, interactions);
-            report.put("customerValue", customerValue);
+            if (customerSales != null && interactions != null) {
+                report.put("customerValue", calculateCustomerValue(customerSales, interactions));
+            }
+
+            report.put("partial", !missingSections.isEmpty());
+            report.put("missingSections", missingSections);
 
-            logger.info("Successfully generated activity report for customer ID: {} with value: {} and last activity: {}",
-                    customerId, customerValue, lastActivity);
+            if (missingSections.isEmpty()) {
+                logger.info("Successfully generated activity report for customer ID: {} with value: {} and last activity: {}",
+                        customerId, report.get("customerValue"), lastActivity);
+            } else {
+                logger.warn("Generated partial activity report for customer ID: {}, missing sections: {}",
+                        customerId, missingSections);
+            }
             return report;
 
-        } catch (RuntimeException e) {
+        } catch (CustomerNotFound e) {
             logger.warn("Customer not found for activity report: {}", customerId);
             throw e;
         } catch (Exception e) {
@@ -129,30 +189,59 @@ public class ReportService {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.SALES_TRENDS_REPORTS,
+            key = "#granularity + ':' + #from + ':' + #to + '@' + @dataVersionService.current()")
     @Transactional(readOnly = true)
-    public Map<String, Object> getSalesTrendsReport() {
-        logger.info("Generating sales trends report");
+    public Map<String, Object> getSalesTrendsReport(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        logger.info("Generating {} sales trends report between {} and {}", granularity, from, to);
         try {
-            List<Sale> sales = saleService.getAllSales();
+            boolean fromSnapshot = salesTrendSource.isSnapshot();
+            List<SalesTrendRow> rows;
+            try (Stream<SalesTrendRow> trend = salesTrendSource.streamTrend(granularity, from, to)) {
+                rows = trend.toList();
+            }
             Map<String, Object> trends = new HashMap<>();
 
-            logger.debug("Analyzing trends for {} sales", sales.size());
+            logger.debug("Analyzing trends from {} {} rows", rows.size(), fromSnapshot ? "snapshot" : "rollup");
 
-            trends.put("totalSales", sales.size());
+            long totalSales = 0;
+            BigDecimal totalRevenue = BigDecimal.ZERO;
+            Map<String, Long> salesByPeriod = new LinkedHashMap<>();
+            Map<String, BigDecimal> revenueByPeriod = new LinkedHashMap<>();
+            Map<String, Long> salesByStatus = new HashMap<>();
 
-            BigDecimal totalRevenue = calculateTotalRevenue(sales);
-            trends.put("totalRevenue", totalRevenue);
+            for (SalesTrendRow row : rows) {
+                String period = formatPeriod(granularity, row.getPeriodStart());
+                long count = row.getSaleCount() != null ? row.getSaleCount() : 0;
+                BigDecimal revenue = row.getRevenue() != null ? row.getRevenue() : BigDecimal.ZERO;
 
-            Map<String, Integer> salesByMonth = groupSalesByMonth(sales);
-            trends.put("salesByMonth", salesByMonth);
-            logger.debug("Sales distribution by month: {}", salesByMonth);
+                totalSales += count;
+                totalRevenue = totalRevenue.add(revenue);
+                salesByPeriod.merge(period, count, Long::sum);
+                revenueByPeriod.merge(period, revenue, BigDecimal::add);
+                salesByStatus.merge(row.getStatus().toString(), count, Long::sum);
+            }
 
-            List<Sale> topSales = getTopSales(sales, 10);
+            trends.put("granularity", granularity);
+            trends.put("from", from);
+            trends.put("to", to);
+            trends.put("totalSales", totalSales);
+            trends.put("totalRevenue", totalRevenue);
+            trends.put("salesByPeriod", salesByPeriod);
+            trends.put("revenueByPeriod", revenueByPeriod);
+            trends.put("salesByStatus", salesByStatus);
+            logger.debug("Sales distribution by period: {}", salesByPeriod);
+
+            List<SaleSummary> topSales = fromSnapshot
+                    ? saleService.getSalesByIds(salesSnapshotService.getTopSaleIds(10, from, to))
+                    : saleService.getTopSales(10,
+                            from != null ? from.atStartOfDay() : null,
+                            to != null ? to.plusDays(1).atStartOfDay() : null);
             trends.put("topPerformingSales", topSales);
             logger.debug("Retrieved {} top performing sales", topSales.size());
 
-            logger.info("Successfully generated sales trends report with total revenue: {} across {} months",
-                    totalRevenue, salesByMonth.size());
+            logger.info("Successfully generated sales trends report with total revenue: {} across {} periods",
+                    totalRevenue, salesByPeriod.size());
             return trends;
 
         } catch (Exception e) {
@@ -161,11 +250,43 @@ public class ReportService {
         }
     }
 
-    private BigDecimal calculateTotalRevenue(List<Sale> sales) {
+    private <T> CompletableFuture<T> supplyReadOnly(Supplier<T> query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> query.get()), reportExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T awaitPart(String section, CompletableFuture<T> part, long deadline, List<String> missingSections) {
+        try {
+            return part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Activity report section '{}' did not finish within {}", section, activityReportTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for activity report section '{}'", section);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof RejectedExecutionException)) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+            logger.warn("Report executor is saturated, skipping activity report section '{}'", section);
+        }
+        part.cancel(true);
+        missingSections.add(section);
+        return null;
+    }
+
+    private BigDecimal calculateTotalRevenue(List<SaleSummary> sales) {
         logger.debug("Calculating total revenue for {} sales", sales.size());
         try {
             BigDecimal revenue = sales.stream()
-                    .map(Sale::getAmount)
+                    .map(SaleSummary::amount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
             logger.debug("Total revenue calculated: {}", revenue);
             return revenue;
@@ -175,28 +296,11 @@ public class ReportService {
         }
     }
 
-    private List<Sale> getRecentSales(List<Sale> sales, int limit) {
-        logger.debug("Getting {} most recent sales from {} total sales", limit, sales.size());
-        try {
-            List<Sale> recentSales = sales.stream()
-                    .sorted((a, b) -> b.getSaleDate().compareTo(a.getSaleDate()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
-            logger.debug("Retrieved {} recent sales", recentSales.size());
-            return recentSales;
-        } catch (Exception e) {
-            logger.error("Error getting recent sales: {}", e.getMessage(), e);
-            throw e;
-        }
-    }
-
-    private long getActiveCustomers(List<Customer> customers) {
-        logger.debug("Calculating active customers from {} total customers", customers.size());
+    private long getActiveCustomers() {
+        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
+        logger.debug("Calculating active customers with sales since {}", threeMonthsAgo);
         try {
-            LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-            long activeCount = customers.stream()
-                    .filter(customer -> hasRecentActivity(customer, threeMonthsAgo))
-                    .count();
+            long activeCount = saleService.countCustomersWithSalesSince(threeMonthsAgo);
             logger.debug("Found {} active customers (with activity since {})", activeCount, threeMonthsAgo);
             return activeCount;
         } catch (Exception e) {
@@ -205,28 +309,12 @@ public class ReportService {
         }
     }
 
-    private boolean hasRecentActivity(Customer customer, LocalDateTime since) {
-        try {
-            List<Sale> recentSales = saleService.getSaleByCustomerId(customer.getId())
-                    .stream()
-                    .filter(sale -> sale.getSaleDate().isAfter(since))
-                    .collect(Collectors.toList());
-            boolean hasActivity = !recentSales.isEmpty();
-            logger.debug("Customer {} has recent activity: {} ({} recent sales)",
-                    customer.getId(), hasActivity, recentSales.size());
-            return hasActivity;
-        } catch (Exception e) {
-            logger.error("Error checking recent activity for customer {}: {}", customer.getId(), e.getMessage(), e);
-            return false;
-        }
-    }
-
-    private Map<String, Long> groupInteractionsByType(List<CustomerInteraction> interactions) {
+    private Map<String, Long> groupInteractionsByType(List<InteractionSummary> interactions) {
         logger.debug("Grouping {} interactions by type", interactions.size());
         try {
             Map<String, Long> groupedInteractions = interactions.stream()
                     .collect(Collectors.groupingBy(
-                            interaction -> interaction.getType().toString(),
+                            interaction -> interaction.type().toString(),
                             Collectors.counting()
                     ));
             logger.debug("Interaction groups: {}", groupedInteractions);
@@ -237,13 +325,12 @@ public class ReportService {
         }
     }
 
-    private List<CustomerInteraction> getRecentInteractions(List<CustomerInteraction> interactions, int limit) {
+    private List<InteractionSummary> getRecentInteractions(List<InteractionSummary> interactions, int limit) {
         logger.debug("Getting {} most recent interactions from {} total interactions", limit, interactions.size());
         try {
-            List<CustomerInteraction> recentInteractions = interactions.stream()
-                    .sorted((a, b) -> b.getInteractionDate().compareTo(a.getInteractionDate()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            List<InteractionSummary> recentInteractions = TopK.select(interactions, limit,
+                    Comparator.comparing(InteractionSummary::interactionDate,
+                            Comparator.nullsFirst(Comparator.naturalOrder())));
             logger.debug("Retrieved {} recent interactions", recentInteractions.size());
             return recentInteractions;
         } catch (Exception e) {
@@ -252,18 +339,18 @@ public class ReportService {
         }
     }
 
-    private LocalDateTime getLastActivityDate(List<Sale> sales, List<CustomerInteraction> interactions) {
+    private LocalDateTime getLastActivityDate(List<SaleSummary> sales, List<InteractionSummary> interactions) {
         logger.debug("Calculating last activity date from {} sales and {} interactions",
                 sales.size(), interactions.size());
         try {
             LocalDateTime lastSale = sales.stream()
-                    .map(Sale::getSaleDate)
+                    .map(SaleSummary::saleDate)
                     .filter(Objects::nonNull)
                     .max(LocalDateTime::compareTo)
                     .orElse(LocalDateTime.MIN);
 
             LocalDateTime lastInteraction = interactions.stream()
-                    .map(CustomerInteraction::getInteractionDate)
+                    .map(InteractionSummary::interactionDate)
                     .filter(Objects::nonNull)
                     .max(LocalDateTime::compareTo)
                     .orElse(LocalDateTime.MIN);
@@ -278,21 +365,14 @@ public class ReportService {
         }
     }
 
-    private String calculateCustomerValue(List<Sale> sales, List<CustomerInteraction> interactions) {
+    private String calculateCustomerValue(List<SaleSummary> sales, List<InteractionSummary> interactions) {
         logger.debug("Calculating customer value from {} sales and {} interactions",
                 sales.size(), interactions.size());
         try {
             BigDecimal revenue = calculateTotalRevenue(sales);
             int engagementScore = interactions.size();
 
-            String value;
-            if (revenue.compareTo(BigDecimal.valueOf(10000)) > 0 && engagementScore > 5) {
-                value = "HIGH_VALUE";
-            } else if (revenue.compareTo(BigDecimal.valueOf(5000)) > 0 || engagementScore > 3) {
-                value = "MEDIUM_VALUE";
-            } else {
-                value = "LOW_VALUE";
-            }
+            String value = CustomerValueSegment.classify(revenue, engagementScore).name();
 
             logger.debug("Customer value calculated: {} (revenue: {}, engagement: {})",
                     value, revenue, engagementScore);
@@ -303,34 +383,9 @@ public class ReportService {
         }
     }
 
-    private Map<String, Integer> groupSalesByMonth(List<Sale> sales) {
-        logger.debug("Grouping {} sales by month", sales.size());
-        try {
-            Map<String, Integer> salesByMonth = sales.stream()
-                    .collect(Collectors.groupingBy(
-                            sale -> sale.getSaleDate().getMonth().toString(),
-                            Collectors.collectingAndThen(Collectors.counting(), Long::intValue)
-                    ));
-            logger.debug("Sales by month distribution: {}", salesByMonth);
-            return salesByMonth;
-        } catch (Exception e) {
-            logger.error("Error grouping sales by month: {}", e.getMessage(), e);
-            throw e;
-        }
-    }
-
-    private List<Sale> getTopSales(List<Sale> sales, int limit) {
-        logger.debug("Getting top {} sales from {} total sales", limit, sales.size());
-        try {
-            List<Sale> topSales = sales.stream()
-                    .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
-            logger.debug("Retrieved {} top sales", topSales.size());
-            return topSales;
-        } catch (Exception e) {
-            logger.error("Error getting top sales: {}", e.getMessage(), e);
-            throw e;
-        }
+    private String formatPeriod(RollupGranularity granularity, LocalDate periodStart) {
+        return granularity == RollupGranularity.MONTH
+                ? YearMonth.from(periodStart).toString()
+                : periodStart.toString();
     }
 }
@@ -0,0 +1,101 @@
+package org.assignment.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class SaleExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleExportService.class);
+
+    private static final byte NEWLINE = '\n';
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesTrendSource salesTrendSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Streams the same summary rows as the paged JSON list, so nothing is loaded into the persistence context and
+    // both formats carry the same fields.
+    @Transactional(readOnly = true)
+    public long writeSalesAsNdjson(OutputStream out) {
+        logger.info("Streaming all sales as NDJSON");
+        long written = 0;
+        try (Stream<SaleSummary> sales = saleRepository.streamAllSummaries()) {
+            Iterator<SaleSummary> iterator = sales.iterator();
+            while (iterator.hasNext()) {
+                writeLine(out, iterator.next());
+                written++;
+                if (written % SaleRepository.STREAM_FETCH_SIZE == 0) {
+                    out.flush();
+                    logger.debug("Streamed {} sales so far", written);
+                }
+            }
+            out.flush();
+            logger.info("Successfully streamed {} sales", written);
+            return written;
+        } catch (IOException e) {
+            logger.warn("Client stopped reading the sales stream after {} rows: {}", written, e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            logger.error("Error streaming sales after {} rows: {}", written, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Reads through the same source selection as the JSON trends report, so both agree for the same range.
+    @Transactional(readOnly = true)
+    public long writeSalesTrendAsNdjson(RollupGranularity granularity, LocalDate from, LocalDate to, OutputStream out) {
+        logger.info("Streaming {} sales trend between {} and {} as NDJSON from the {}", granularity, from, to,
+                salesTrendSource.isSnapshot() ? "snapshot" : "rollups");
+        long written = 0;
+        try (Stream<SalesTrendRow> rows = salesTrendSource.streamTrend(granularity, from, to)) {
+            Iterator<SalesTrendRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                SalesTrendRow row = iterator.next();
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("periodStart", row.getPeriodStart());
+                line.put("status", row.getStatus());
+                line.put("saleCount", row.getSaleCount());
+                line.put("revenue", row.getRevenue());
+                writeLine(out, line);
+                written++;
+            }
+            out.flush();
+            logger.info("Successfully streamed {} sales trend rows", written);
+            return written;
+        } catch (IOException e) {
+            logger.warn("Client stopped reading the sales trend stream after {} rows: {}", written, e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            logger.error("Error streaming sales trend after {} rows: {}", written, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write(NEWLINE);
+    }
+}
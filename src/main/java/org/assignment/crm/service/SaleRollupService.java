@@ -0,0 +1,172 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.dto.DailySalesRow;
+import org.assignment.crm.entity.SaleRollup;
+import org.assignment.crm.entity.SaleRollupId;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.SaleRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class SaleRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleRollupService.class);
+
+    private static final Object PENDING_DELTAS = new Object();
+
+    @Autowired
+    private SaleRollupRepository saleRollupRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    // Runs inside the publishing transaction so the rollup commits or rolls back with the sale. The old and new values
+    // are netted per bucket first, so an update that keeps the day, month, status, rep and amount writes nothing, and
+    // every change in the transaction lands in the same buckets, so a bulk insert writes one upsert per bucket.
+    @EventListener
+    @Transactional
+    public void onSaleChanged(SaleChangedEvent event) {
+        Map<SaleRollupId, SaleRollup> deltas = pendingDeltas();
+        if (event.previous() != null) {
+            collect(deltas, event.previous(), -1);
+        }
+        if (event.current() != null) {
+            collect(deltas, event.current(), 1);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyDeltas(deltas);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (saleRollupRepository.count() == 0 && saleRepository.count() > 0) {
+            logger.info("Sales rollups are empty, backfilling from the sales table");
+            rebuild();
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfiguration.SALES_TRENDS_REPORTS, allEntries = true)
+    @Transactional
+    public int rebuild() {
+        logger.info("Rebuilding sales rollups from scratch");
+        try {
+            saleRollupRepository.deleteAllRollups();
+
+            Map<SaleRollupId, SaleRollup> rollups = new HashMap<>();
+            for (DailySalesRow row : saleRepository.aggregateByDayStatusAndRep()) {
+                SaleStatus status = rollupStatus(row.getStatus());
+                long repId = row.getSalesRepId() != null ? row.getSalesRepId() : SaleRollup.UNASSIGNED_REP;
+                accumulate(rollups, RollupGranularity.DAY, row.getSaleDay(), status, repId, row.getSaleCount(), row.getRevenue());
+                accumulate(rollups, RollupGranularity.MONTH, row.getSaleDay().withDayOfMonth(1), status, repId, row.getSaleCount(), row.getRevenue());
+            }
+
+            saleRollupRepository.saveAll(new ArrayList<>(rollups.values()));
+            logger.info("Rebuilt {} sales rollup rows", rollups.size());
+            return rollups.size();
+        } catch (Exception e) {
+            logger.error("Error rebuilding sales rollups: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private void collect(Map<SaleRollupId, SaleRollup> deltas, SaleSnapshot sale, int sign) {
+        if (sale.saleDate() == null || sale.amount() == null) {
+            logger.warn("Skipping rollup for sale {} without date or amount", sale.saleId());
+            return;
+        }
+        LocalDate day = sale.saleDate().toLocalDate();
+        SaleStatus status = rollupStatus(sale.status());
+        long repId = sale.salesRepId() != null ? sale.salesRepId() : SaleRollup.UNASSIGNED_REP;
+        BigDecimal revenue = sign < 0 ? sale.amount().negate() : sale.amount();
+
+        accumulate(deltas, RollupGranularity.DAY, day, status, repId, sign, revenue);
+        accumulate(deltas, RollupGranularity.MONTH, day.withDayOfMonth(1), status, repId, sign, revenue);
+    }
+
+    // Bound to the transaction and applied just before it commits, still inside it.
+    private Map<SaleRollupId, SaleRollup> pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new LinkedHashMap<>();
+        }
+        @SuppressWarnings("unchecked")
+        Map<SaleRollupId, SaleRollup> pending =
+                (Map<SaleRollupId, SaleRollup>) TransactionSynchronizationManager.getResource(PENDING_DELTAS);
+        if (pending == null) {
+            Map<SaleRollupId, SaleRollup> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    TransactionSynchronizationManager.unbindResource(PENDING_DELTAS);
+                    applyDeltas(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS);
+                }
+            });
+            pending = deltas;
+        }
+        return pending;
+    }
+
+    // A bucket whose count drops to zero is deleted rather than kept as an empty row.
+    private void applyDeltas(Map<SaleRollupId, SaleRollup> deltas) {
+        int written = 0;
+        for (SaleRollup delta : deltas.values()) {
+            if (delta.getSaleCount() == 0 && delta.getRevenue().signum() == 0) {
+                continue;
+            }
+            saleRollupRepository.upsertIncrement(delta.getGranularity().name(), delta.getPeriodStart(),
+                    delta.getStatus().name(), delta.getSalesRepId(), delta.getPeriodYear(), delta.getPeriodMonth(),
+                    delta.getSaleCount(), delta.getRevenue());
+            if (delta.getSaleCount() < 0) {
+                saleRollupRepository.deleteEmpty(delta.getGranularity(), delta.getPeriodStart(),
+                        delta.getStatus(), delta.getSalesRepId());
+            }
+            written++;
+        }
+        logger.debug("Applied {} changed rollup buckets out of {}", written, deltas.size());
+    }
+
+    private void accumulate(Map<SaleRollupId, SaleRollup> rollups, RollupGranularity granularity, LocalDate periodStart,
+                            SaleStatus status, long repId, long count, BigDecimal revenue) {
+        SaleRollupId id = new SaleRollupId(granularity, periodStart, status, repId);
+        SaleRollup rollup = rollups.computeIfAbsent(id,
+                key -> new SaleRollup(granularity, periodStart, status, repId, 0, BigDecimal.ZERO));
+        rollup.setSaleCount(rollup.getSaleCount() + count);
+        rollup.setRevenue(rollup.getRevenue().add(revenue));
+    }
+
+    private static SaleStatus rollupStatus(SaleStatus status) {
+        return status != null ? status : SaleStatus.COMPLETED;
+    }
+
+    static LocalDate periodStart(RollupGranularity granularity, LocalDate date) {
+        return granularity == RollupGranularity.MONTH ? date.withDayOfMonth(1) : date;
+    }
+}
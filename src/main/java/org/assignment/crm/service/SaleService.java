@@ -1,10 +1,16 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.KeysetPage;
+import org.assignment.crm.dto.KeysetPageRequest;
+import org.assignment.crm.dto.SaleSummary;
 import org.assignment.crm.entity.Customer;
 import org.assignment.crm.entity.Sale;
 import org.assignment.crm.entity.User;
 import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
 import org.assignment.crm.exception.CustomerNotFound;
+import org.assignment.crm.exception.InvalidBulkRequest;
 import org.assignment.crm.exception.SaleNotFound;
 import org.assignment.crm.exception.UserNotFound;
 import org.assignment.crm.repository.CustomerRepository;
@@ -13,13 +19,20 @@ import org.assignment.crm.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SaleService {
@@ -35,6 +48,13 @@ public class SaleService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${crm.sales.bulk.max-size:1000}")
+    private int bulkMaxSize = 1000;
+
+    @Transactional
     public Sale addSale(Sale sale) {
         logger.info("Creating new sale with amount: {}", sale.getAmount());
         try {
@@ -68,6 +88,7 @@ public class SaleService {
             }
 
             Sale savedSale = this.saleRepository.save(sale);
+            eventPublisher.publishEvent(SaleChangedEvent.created(SaleSnapshot.of(savedSale)));
             logger.info("Successfully created sale with ID: {} and amount: {}", savedSale.getId(), savedSale.getAmount());
             return savedSale;
         } catch (Exception e) {
@@ -77,12 +98,59 @@ public class SaleService {
     }
 
 
+    // Resolves every customer and rep with one query each and saves the sales through saveAll, which the JDBC batch
+    // settings turn into one insert statement per 50 rows. Each sale still publishes its own created event.
+    @Transactional
+    public List<Sale> addSales(List<Sale> sales) {
+        logger.info("Creating {} sales in bulk", sales.size());
+        try {
+            if (sales.size() > bulkMaxSize) {
+                throw new InvalidBulkRequest("At most " + bulkMaxSize + " sales can be created per request, got " + sales.size());
+            }
+            Map<Long, Customer> customers = customerRepository.findAllById(
+                            sales.stream().map(sale -> sale.getCustomer().getId()).collect(Collectors.toSet()))
+                    .stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
+            Map<Long, User> reps = userRepository.findAllById(
+                            sales.stream().map(sale -> sale.getSalesRep().getId()).collect(Collectors.toSet()))
+                    .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Sale sale : sales) {
+                Customer customer = customers.get(sale.getCustomer().getId());
+                if (customer == null) {
+                    throw new CustomerNotFound("Customer not found with ID: " + sale.getCustomer().getId());
+                }
+                User rep = reps.get(sale.getSalesRep().getId());
+                if (rep == null) {
+                    throw new UserNotFound("Sales rep not found with ID: " + sale.getSalesRep().getId());
+                }
+                sale.setCustomer(customer);
+                sale.setSalesRep(rep);
+                sale.setCreatedAt(now);
+                sale.setUpdatedAt(now);
+                if (sale.getStatus() == null) {
+                    sale.setStatus(SaleStatus.COMPLETED);
+                }
+                customer.setTotalPurchaseValue(customer.getTotalPurchaseValue().add(sale.getAmount()));
+            }
+
+            List<Sale> savedSales = saleRepository.saveAll(sales);
+            savedSales.forEach(saved -> eventPublisher.publishEvent(SaleChangedEvent.created(SaleSnapshot.of(saved))));
+            logger.info("Successfully created {} sales in bulk", savedSales.size());
+            return savedSales;
+        } catch (Exception e) {
+            logger.error("Error creating {} sales in bulk: {}", sales.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @Transactional(readOnly = true)
-    public List<Sale> getAllSales() {
-        logger.info("Retrieving all sales");
+    public KeysetPage<SaleSummary> getAllSales(KeysetPageRequest page) {
+        logger.info("Retrieving sales after ID: {}", page.afterId());
         try {
-            List<Sale> sales = this.saleRepository.findAll();
-            logger.info("Successfully retrieved {} sales", sales.size());
+            KeysetPage<SaleSummary> sales = KeysetPage.of(
+                    saleRepository.findSummariesAfter(page.afterId(), page.fetchPage()), page, SaleSummary::id);
+            logger.info("Successfully retrieved {} sales", sales.items().size());
             return sales;
         } catch (Exception e) {
             logger.error("Error retrieving all sales: {}", e.getMessage(), e);
@@ -108,14 +176,15 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getSaleByRepId(long rep_id) {
+    public KeysetPage<SaleSummary> getSaleByRepId(long rep_id, KeysetPageRequest page) {
         logger.info("Retrieving sales for sales representative ID: {}", rep_id);
         try {
             User sale_rep = userRepository.findById(rep_id)
                     .orElseThrow(() -> new UserNotFound("No sales Representative with this id"));
 
-            List<Sale> sales = saleRepository.findSaleBySalesRep_Id(rep_id);
-            logger.info("Successfully retrieved {} sales for sales rep ID: {}", sales.size(), rep_id);
+            KeysetPage<SaleSummary> sales = KeysetPage.of(saleRepository.findSummariesBySalesRepAfter(
+                    rep_id, page.afterId(), page.fetchPage()), page, SaleSummary::id);
+            logger.info("Successfully retrieved {} sales for sales rep ID: {}", sales.items().size(), rep_id);
             return sales;
         } catch (UserNotFound e) {
             logger.warn("Sales representative not found with ID: {}", rep_id);
@@ -127,14 +196,15 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getSaleByCustomerId(long cust_id) {
+    public KeysetPage<SaleSummary> getSaleByCustomerId(long cust_id, KeysetPageRequest page) {
         logger.info("Retrieving sales for customer ID: {}", cust_id);
         try {
             Customer customer = customerRepository.findById(cust_id)
                     .orElseThrow(() -> new CustomerNotFound("Customer not Found with this id"));
 
-            List<Sale> sales = saleRepository.findSaleByCustomer_Id(cust_id);
-            logger.info("Successfully retrieved {} sales for customer ID: {}", sales.size(), cust_id);
+            KeysetPage<SaleSummary> sales = KeysetPage.of(saleRepository.findSummariesByCustomerAfter(
+                    cust_id, page.afterId(), page.fetchPage()), page, SaleSummary::id);
+            logger.info("Successfully retrieved {} sales for customer ID: {}", sales.items().size(), cust_id);
             return sales;
         } catch (CustomerNotFound e) {
             logger.warn("Customer not found with ID: {}", cust_id);
@@ -145,12 +215,21 @@ public class SaleService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public List<SaleSummary> findSalesByCustomerId(long customerId) {
+        logger.debug("Retrieving sales for customer ID {} without existence check", customerId);
+        List<SaleSummary> sales = saleRepository.findSummariesByCustomer(customerId);
+        logger.debug("Retrieved {} sales for customer ID: {}", sales.size(), customerId);
+        return sales;
+    }
+
     @Transactional
     public Sale updateSale(long sale_id, Sale updateData) {
         logger.info("Updating sale with ID: {}", sale_id);
         try {
             Sale existingSale = this.saleRepository.findById(sale_id)
                     .orElseThrow(() -> new SaleNotFound("Sale with ID " + sale_id + " not found"));
+            SaleSnapshot previous = SaleSnapshot.of(existingSale);
 
             if (updateData.getAmount() != null) {
                 logger.debug("Updating sale amount from {} to {}", existingSale.getAmount(), updateData.getAmount());
@@ -238,6 +317,7 @@ public class SaleService {
 
             existingSale.setUpdatedAt(LocalDateTime.now());
             Sale updatedSale = this.saleRepository.save(existingSale);
+            eventPublisher.publishEvent(SaleChangedEvent.updated(previous, SaleSnapshot.of(updatedSale)));
 
             logger.info("Successfully updated sale with ID: {}", sale_id);
             return updatedSale;
@@ -262,6 +342,7 @@ public class SaleService {
             customer.setTotalPurchaseValue(customer.getTotalPurchaseValue().subtract(sale.getAmount()));
             customerRepository.save(customer);
             this.saleRepository.delete(sale);
+            eventPublisher.publishEvent(SaleChangedEvent.deleted(SaleSnapshot.of(sale)));
             logger.info("Successfully deleted sale with ID: {}", sale_id);
         } catch (SaleNotFound e) {
             logger.warn("Cannot delete - sale not found with ID: {}", sale_id);
@@ -301,11 +382,13 @@ public class SaleService {
             Sale sale = this.saleRepository.findById(sale_id)
                     .orElseThrow(() -> new SaleNotFound("Sales with this ID is not found!"));
 
+            SaleSnapshot previous = SaleSnapshot.of(sale);
             SaleStatus oldStatus = sale.getStatus();
             sale.setStatus(newStatus);
             sale.setUpdatedAt(LocalDateTime.now());
 
             Sale updatedSale = this.saleRepository.save(sale);
+            eventPublisher.publishEvent(SaleChangedEvent.updated(previous, SaleSnapshot.of(updatedSale)));
             logger.info("Successfully updated sale ID {} status from {} to {}", sale_id, oldStatus, newStatus);
             return updatedSale;
         } catch (SaleNotFound e) {
@@ -318,11 +401,12 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getSalesByStatus(SaleStatus status) {
+    public KeysetPage<SaleSummary> getSalesByStatus(SaleStatus status, KeysetPageRequest page) {
         logger.info("Retrieving sales with status: {}", status);
         try {
-            List<Sale> sales = this.saleRepository.findSaleByStatus(status);
-            logger.info("Successfully retrieved {} sales with status: {}", sales.size(), status);
+            KeysetPage<SaleSummary> sales = KeysetPage.of(saleRepository.findSummariesByStatusAfter(
+                    status, page.afterId(), page.fetchPage()), page, SaleSummary::id);
+            logger.info("Successfully retrieved {} sales with status: {}", sales.items().size(), status);
             return sales;
         } catch (Exception e) {
             logger.error("Error retrieving sales with status {}: {}", status, e.getMessage(), e);
@@ -331,17 +415,18 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getCompletedSales() {
+    public KeysetPage<SaleSummary> getCompletedSales(KeysetPageRequest page) {
         logger.info("Retrieving completed sales");
         try {
-            List<Sale> sales = saleRepository.findSaleByStatus(SaleStatus.COMPLETED);
+            KeysetPage<SaleSummary> sales = KeysetPage.of(saleRepository.findSummariesByStatusAfter(
+                    SaleStatus.COMPLETED, page.afterId(), page.fetchPage()), page, SaleSummary::id);
 
-            if (sales.isEmpty()) {
+            if (page.isFirstPage() && sales.items().isEmpty()) {
                 logger.warn("No completed sales found");
                 throw new SaleNotFound("No completed sales found");
             }
 
-            logger.info("Successfully retrieved {} completed sales", sales.size());
+            logger.info("Successfully retrieved {} completed sales", sales.items().size());
             return sales;
         } catch (SaleNotFound e) {
             throw e;
@@ -352,17 +437,18 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getCanceledSales() {
+    public KeysetPage<SaleSummary> getCanceledSales(KeysetPageRequest page) {
         logger.info("Retrieving canceled sales");
         try {
-            List<Sale> sales = saleRepository.findSaleByStatus(SaleStatus.CANCELED);
+            KeysetPage<SaleSummary> sales = KeysetPage.of(saleRepository.findSummariesByStatusAfter(
+                    SaleStatus.CANCELED, page.afterId(), page.fetchPage()), page, SaleSummary::id);
 
-            if (sales.isEmpty()) {
+            if (page.isFirstPage() && sales.items().isEmpty()) {
                 logger.warn("No canceled sales found");
                 throw new SaleNotFound("No Canceled sales found");
             }
 
-            logger.info("Successfully retrieved {} canceled sales", sales.size());
+            logger.info("Successfully retrieved {} canceled sales", sales.items().size());
             return sales;
         } catch (SaleNotFound e) {
             throw e;
@@ -373,7 +459,59 @@ public class SaleService {
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> getSalesByRepId(long id){
-        return this.saleRepository.getSalesBySalesRep_Id(id);
+    public List<SaleSummary> getRecentSales(int limit) {
+        logger.info("Retrieving {} most recent sales", limit);
+        try {
+            List<SaleSummary> sales = saleRepository.findRecentSummaries(PageRequest.of(0, limit));
+            logger.info("Successfully retrieved {} recent sales", sales.size());
+            return sales;
+        } catch (Exception e) {
+            logger.error("Error retrieving recent sales: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SaleSummary> getTopSales(int limit, LocalDateTime from, LocalDateTime to) {
+        logger.info("Retrieving top {} sales by amount between {} and {}", limit, from, to);
+        try {
+            List<SaleSummary> sales = saleRepository.findTopByAmount(from, to, PageRequest.of(0, limit));
+            logger.info("Successfully retrieved {} top sales", sales.size());
+            return sales;
+        } catch (Exception e) {
+            logger.error("Error retrieving top sales: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SaleSummary> getSalesByIds(List<Long> ids) {
+        logger.info("Retrieving {} sales by ID", ids.size());
+        try {
+            Map<Long, SaleSummary> byId = saleRepository.findSummariesByIdIn(ids).stream()
+                    .collect(Collectors.toMap(SaleSummary::id, Function.identity()));
+            List<SaleSummary> sales = ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            logger.info("Successfully retrieved {} of {} requested sales", sales.size(), ids.size());
+            return sales;
+        } catch (Exception e) {
+            logger.error("Error retrieving sales by ID: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long countCustomersWithSalesSince(LocalDateTime since) {
+        logger.info("Counting customers with sales since: {}", since);
+        try {
+            long count = saleRepository.countDistinctCustomersWithSaleAfter(since);
+            logger.info("Found {} customers with sales since: {}", count, since);
+            return count;
+        } catch (Exception e) {
+            logger.error("Error counting customers with sales since {}: {}", since, e.getMessage(), e);
+            throw e;
+        }
     }
 }
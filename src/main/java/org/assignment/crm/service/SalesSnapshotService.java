@@ -0,0 +1,255 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.ReadYourWrites;
+import org.assignment.crm.dto.CustomerRevenueRow;
+import org.assignment.crm.dto.SaleColumnRow;
+import org.assignment.crm.dto.SalesRepRevenueRow;
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.util.SalesColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class SalesSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesSnapshotService.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SalesColumns columns = new SalesColumns(SaleStatus.values().length);
+    private List<SaleChangedEvent> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private <T> T read(Function<SalesColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SalesTrendRow> getTrend(RollupGranularity granularity, LocalDate from, LocalDate to) {
+        boolean monthly = granularity == RollupGranularity.MONTH;
+        int fromDay = from != null ? (int) SaleRollupService.periodStart(granularity, from).toEpochDay() : SalesColumns.ALL_DAYS_FROM;
+        int toDay = to != null ? (int) (monthly ? to.withDayOfMonth(to.lengthOfMonth()) : to).toEpochDay() : SalesColumns.ALL_DAYS_TO;
+        logger.debug("Reading {} sales trend from columnar snapshot between {} and {}", granularity, from, to);
+
+        List<SalesColumns.PeriodBucket> buckets = read(columns -> columns.groupByPeriodAndStatus(fromDay, toDay, monthly));
+        SaleStatus[] statuses = SaleStatus.values();
+        return buckets.stream()
+                .<SalesTrendRow>map(bucket -> new TrendRow(
+                        LocalDate.ofEpochDay(bucket.periodStartEpochDay()),
+                        statuses[bucket.status()],
+                        bucket.count(),
+                        SalesColumns.fromCents(bucket.revenueCents())))
+                .toList();
+    }
+
+    public List<SalesRepRevenueRow> getRevenueBySalesRep(LocalDate from, LocalDate to) {
+        int fromDay = from != null ? (int) from.toEpochDay() : SalesColumns.ALL_DAYS_FROM;
+        int toDay = to != null ? (int) to.toEpochDay() : SalesColumns.ALL_DAYS_TO;
+        return read(columns -> columns.groupBySalesRep(fromDay, toDay)).stream()
+                .<SalesRepRevenueRow>map(bucket -> new RepRow(bucket.id(), bucket.count(),
+                        SalesColumns.fromCents(bucket.revenueCents())))
+                .toList();
+    }
+
+    public List<CustomerRevenueRow> getRevenueByCustomer(LocalDate from, LocalDate to) {
+        int fromDay = from != null ? (int) from.toEpochDay() : SalesColumns.ALL_DAYS_FROM;
+        int toDay = to != null ? (int) to.toEpochDay() : SalesColumns.ALL_DAYS_TO;
+        return read(columns -> columns.groupByCustomer(fromDay, toDay)).stream()
+                .<CustomerRevenueRow>map(bucket -> new CustomerRow(bucket.id(),
+                        SalesColumns.fromCents(bucket.revenueCents())))
+                .toList();
+    }
+
+    public List<Long> getTopSaleIds(int limit, LocalDate from, LocalDate to) {
+        int fromDay = from != null ? (int) from.toEpochDay() : SalesColumns.ALL_DAYS_FROM;
+        int toDay = to != null ? (int) to.toEpochDay() : SalesColumns.ALL_DAYS_TO;
+        long[] ids = read(columns -> columns.topSaleIdsByAmount(limit, fromDay, toDay));
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    // The load reads as a recompute, like the KPI rebuild, so it never copies a replica that is missing this node's
+    // last commit; changes that commit while it runs are replayed onto the new copy before it is swapped in.
+    public int rebuild() {
+        logger.info("Loading columnar sales snapshot");
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            SalesColumns loaded = ReadYourWrites.recompute(() -> transactionTemplate.execute(status -> loadColumns()));
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(event -> apply(loaded, event));
+                changesDuringRebuild = null;
+                columns = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Loaded columnar sales snapshot with {} sales", loaded.size());
+            return loaded.size();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Error loading columnar sales snapshot: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private SalesColumns loadColumns() {
+        SalesColumns loaded = new SalesColumns(SaleStatus.values().length);
+        try (Stream<SaleColumnRow> rows = saleRepository.streamColumnRows()) {
+            rows.forEach(row -> load(loaded, row.getId(), row.getAmount(), row.getSaleDate(),
+                    row.getSalesRepId(), row.getCustomerId(), row.getStatus()));
+        }
+        return loaded;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(columns, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Applied sale {} to columnar snapshot", event.change());
+    }
+
+    private void apply(SalesColumns target, SaleChangedEvent event) {
+        if (event.previous() != null) {
+            target.remove(event.previous().saleId());
+        }
+        SaleSnapshot current = event.current();
+        if (current != null) {
+            load(target, current.saleId(), current.amount(), current.saleDate(),
+                    current.salesRepId(), current.customerId(), current.status());
+        }
+    }
+
+    // Mirrors the rollups: sales without a date or amount are left out, a missing status counts as COMPLETED.
+    private void load(SalesColumns target, Long saleId, BigDecimal amount, LocalDateTime saleDate,
+                      Long salesRepId, Long customerId, SaleStatus status) {
+        if (saleId == null || amount == null || saleDate == null) {
+            return;
+        }
+        target.upsert(saleId, SalesColumns.toCents(amount), saleDate.toLocalDate(),
+                salesRepId != null ? salesRepId : SalesColumns.NO_ID,
+                customerId != null ? customerId : SalesColumns.NO_ID,
+                (status != null ? status : SaleStatus.COMPLETED).ordinal());
+    }
+
+    private record TrendRow(LocalDate periodStart, SaleStatus status, Long saleCount, BigDecimal revenue)
+            implements SalesTrendRow {
+
+        @Override
+        public LocalDate getPeriodStart() {
+            return periodStart;
+        }
+
+        @Override
+        public SaleStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getSaleCount() {
+            return saleCount;
+        }
+
+        @Override
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+    }
+
+    private record RepRow(Long salesRepId, Long saleCount, BigDecimal revenue) implements SalesRepRevenueRow {
+
+        @Override
+        public Long getSalesRepId() {
+            return salesRepId;
+        }
+
+        @Override
+        public Long getSaleCount() {
+            return saleCount;
+        }
+
+        @Override
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+    }
+
+    private record CustomerRow(Long customerId, BigDecimal revenue) implements CustomerRevenueRow {
+
+        @Override
+        public Long getCustomerId() {
+            return customerId;
+        }
+
+        @Override
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+    }
+}
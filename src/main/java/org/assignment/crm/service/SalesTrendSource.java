@@ -0,0 +1,35 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.repository.SaleRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+// The one place sales trend readers pick their source, so the JSON report and the NDJSON export for the same range
+// come from the same structure: the columnar snapshot once it has loaded, the rollup table until then.
+@Service
+public class SalesTrendSource {
+
+    @Autowired
+    private SalesSnapshotService salesSnapshotService;
+
+    @Autowired
+    private SaleRollupRepository saleRollupRepository;
+
+    public boolean isSnapshot() {
+        return salesSnapshotService.isReady();
+    }
+
+    // The rollup stream reads through an open cursor: callers close it and hold a read-only transaction.
+    public Stream<SalesTrendRow> streamTrend(RollupGranularity granularity, LocalDate from, LocalDate to) {
+        if (isSnapshot()) {
+            return salesSnapshotService.getTrend(granularity, from, to).stream();
+        }
+        LocalDate fromPeriod = from != null ? SaleRollupService.periodStart(granularity, from) : null;
+        return saleRollupRepository.streamTrend(granularity, fromPeriod, to);
+    }
+}
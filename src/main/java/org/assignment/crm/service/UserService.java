@@ -1,22 +1,30 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.KeysetPage;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.ChangeType;
 import org.assignment.crm.enums.UserRole;
 import org.assignment.crm.enums.UserStatus;
+import org.assignment.crm.event.UserChangedEvent;
+import org.assignment.crm.exception.ManagerCycleDetected;
 import org.assignment.crm.exception.UserNameExists;
 import org.assignment.crm.exception.UserNotFound;
 import org.assignment.crm.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserService {
@@ -29,6 +37,12 @@ public class UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
     @Transactional
     public User createUser(User user) {
         logger.info("Creating new user with username: {}", user.getUserName());
@@ -60,6 +74,7 @@ public class UserService {
             }
 
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.CREATED, savedUser.getId(), managerIdOf(savedUser)));
             logger.info("Successfully created user with ID: {} and username: {}", savedUser.getId(), savedUser.getUserName());
             return savedUser;
 
@@ -93,11 +108,12 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public List<User> findAll() {
-        logger.info("Retrieving all users");
+    public KeysetPage<User> findAll(KeysetPageRequest page) {
+        logger.info("Retrieving users after ID: {}", page.afterId());
         try {
-            List<User> users = userRepository.findAll();
-            logger.info("Successfully retrieved {} users", users.size());
+            KeysetPage<User> users = KeysetPage.of(
+                    userRepository.findByIdGreaterThanOrderByIdAsc(page.afterId(), page.fetchPage()), page, User::getId);
+            logger.info("Successfully retrieved {} users", users.items().size());
             return users;
         } catch (Exception e) {
             logger.error("Error retrieving all users: {}", e.getMessage(), e);
@@ -185,6 +201,7 @@ public class UserService {
 
             existingUser.setUpdatedAt(LocalDateTime.now());
             User savedUser = userRepository.save(existingUser);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, id, managerIdOf(savedUser)));
 
             logger.info("Successfully updated user with ID: {} and username: {}", id, savedUser.getUserName());
             return savedUser;
@@ -208,6 +225,7 @@ public class UserService {
             }
 
             userRepository.deleteById(id);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.DELETED, id, null));
             logger.info("Successfully deleted user with ID: {}", id);
         } catch (UserNotFound e) {
             throw e;
@@ -260,6 +278,7 @@ public class UserService {
             user.setUpdatedAt(LocalDateTime.now());
 
             User activatedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, id, managerIdOf(activatedUser)));
             logger.info("Successfully activated user with ID: {} (username: {}), status changed from {} to {}",
                     id, user.getUserName(), oldStatus, UserStatus.ACTIVE);
 
@@ -285,6 +304,7 @@ public class UserService {
             user.setUpdatedAt(LocalDateTime.now());
 
             User deactivatedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, id, managerIdOf(deactivatedUser)));
             logger.info("Successfully deactivated user with ID: {} (username: {}), status changed from {} to {}",
                     id, user.getUserName(), oldStatus, UserStatus.INACTIVE);
 
@@ -315,10 +335,34 @@ public class UserService {
             throw new IllegalArgumentException("managerId must belong to a MANAGER or ADMIN");
         }
 
+        if (reportsTo(managerId, userId)) {
+            logger.warn("Rejecting manager {} for user {}: the manager already reports to that user", managerId, userId);
+            throw new ManagerCycleDetected("User " + managerId + " already reports to user " + userId);
+        }
+
         user.setManager(manager);
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, userId, managerId));
+        return savedUser;
+    }
+
+    // Checked against the table inside the write transaction rather than OrgHierarchyService, whose copy only changes
+    // after commit. Both rows are locked in id order first, so opposite assignments (A under B, B under A) queue up and
+    // the second one sees the first; each manager above is locked as the walk reaches it.
+    private boolean reportsTo(long managerId, long userId) {
+        Long firstManagerId = userRepository.lockManagerIdOf(Math.min(managerId, userId));
+        Long secondManagerId = userRepository.lockManagerIdOf(Math.max(managerId, userId));
+        Long current = managerId < userId ? firstManagerId : secondManagerId;
+        Set<Long> seen = new HashSet<>();
+        while (current != null && seen.add(current)) {
+            if (current == userId) {
+                return true;
+            }
+            current = userRepository.lockManagerIdOf(current);
+        }
+        return false;
     }
 
 
@@ -333,4 +377,23 @@ public class UserService {
         return this.userRepository.findUserByManager_Id(id);
     }
 
+    @Transactional(readOnly = true)
+    public List<User> findSubordinates(long id) {
+        logger.info("Finding all users under user ID: {}", id);
+        if (!userRepository.existsById(id)) {
+            throw new UserNotFound("User not found");
+        }
+        List<Long> subordinateIds = orgHierarchyService.getSubordinateIds(id);
+        if (subordinateIds.isEmpty()) {
+            return List.of();
+        }
+        List<User> subordinates = userRepository.findAllById(subordinateIds);
+        logger.info("Found {} users under user ID: {}", subordinates.size(), id);
+        return subordinates;
+    }
+
+    private static Long managerIdOf(User user) {
+        return user.getManager() != null ? user.getManager().getId() : null;
+    }
+
 }
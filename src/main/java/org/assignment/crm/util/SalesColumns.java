@@ -0,0 +1,329 @@
+package org.assignment.crm.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-oriented copy of the sales table: one primitive array per attribute, rows addressed by index.
+// Rows are found by sale id through an open-addressing table of primitive keys (0 marks a free slot, so sale ids must
+// be positive). A sale without a rep or customer stores NO_ID in that column. Not thread-safe; callers guard reads and
+// writes with their own lock.
+public final class SalesColumns {
+
+    public static final long NO_ID = 0L;
+    public static final int ALL_DAYS_FROM = Integer.MIN_VALUE;
+    public static final int ALL_DAYS_TO = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_DENSE_BUCKETS = 1 << 22;
+    private static final long FREE_SLOT = 0L;
+
+    private final int statusCount;
+
+    private long[] saleIds = new long[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] monthIndexes = new int[INITIAL_CAPACITY];
+    private long[] repIds = new long[INITIAL_CAPACITY];
+    private long[] customerIds = new long[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    // Kept at most half full; the length is always a power of two.
+    private long[] indexKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] indexRows = new int[INITIAL_CAPACITY * 2];
+
+    public SalesColumns(int statusCount) {
+        this.statusCount = statusCount;
+    }
+
+    public record PeriodBucket(int periodStartEpochDay, int status, long count, long revenueCents) {
+    }
+
+    public record IdBucket(long id, long count, long revenueCents) {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void upsert(long saleId, long cents, LocalDate saleDay, long repId, long customerId, int status) {
+        if (saleId <= FREE_SLOT) {
+            throw new IllegalArgumentException("Sale ids must be positive, got " + saleId);
+        }
+        int row = findRow(saleId);
+        if (row < 0) {
+            ensureCapacity(size + 1);
+            row = size++;
+            putRow(saleId, row);
+        }
+        saleIds[row] = saleId;
+        amountCents[row] = cents;
+        epochDays[row] = (int) saleDay.toEpochDay();
+        monthIndexes[row] = saleDay.getYear() * 12 + saleDay.getMonthValue() - 1;
+        repIds[row] = repId;
+        customerIds[row] = customerId;
+        statuses[row] = (byte) status;
+    }
+
+    public boolean remove(long saleId) {
+        int row = findRow(saleId);
+        if (row < 0) {
+            return false;
+        }
+        removeKey(saleId);
+        int last = --size;
+        if (row != last) {
+            saleIds[row] = saleIds[last];
+            amountCents[row] = amountCents[last];
+            epochDays[row] = epochDays[last];
+            monthIndexes[row] = monthIndexes[last];
+            repIds[row] = repIds[last];
+            customerIds[row] = customerIds[last];
+            statuses[row] = statuses[last];
+            putRow(saleIds[row], row);
+        }
+        return true;
+    }
+
+    // Sale count and revenue per (period, status), ordered by period then status.
+    public List<PeriodBucket> groupByPeriodAndStatus(int fromDay, int toDay, boolean monthly) {
+        int[] periods = monthly ? monthIndexes : epochDays;
+        int minPeriod = Integer.MAX_VALUE;
+        int maxPeriod = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= fromDay && day <= toDay) {
+                minPeriod = Math.min(minPeriod, periods[i]);
+                maxPeriod = Math.max(maxPeriod, periods[i]);
+            }
+        }
+        if (minPeriod > maxPeriod) {
+            return List.of();
+        }
+
+        long span = (long) maxPeriod - minPeriod + 1;
+        if (span * statusCount > MAX_DENSE_BUCKETS) {
+            return groupSparse(fromDay, toDay, periods, monthly);
+        }
+
+        int buckets = (int) span * statusCount;
+        long[] counts = new long[buckets];
+        long[] cents = new long[buckets];
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= fromDay && day <= toDay) {
+                int bucket = (periods[i] - minPeriod) * statusCount + statuses[i];
+                counts[bucket]++;
+                cents[bucket] += amountCents[i];
+            }
+        }
+
+        List<PeriodBucket> result = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (counts[bucket] > 0) {
+                int period = minPeriod + bucket / statusCount;
+                result.add(new PeriodBucket(periodStartDay(period, monthly), bucket % statusCount,
+                        counts[bucket], cents[bucket]));
+            }
+        }
+        return result;
+    }
+
+    // Sale count and revenue per sales rep in the day range, ordered by rep id; sales without a rep are left out.
+    public List<IdBucket> groupBySalesRep(int fromDay, int toDay) {
+        return groupById(repIds, fromDay, toDay);
+    }
+
+    // Sale count and revenue per customer in the day range, ordered by customer id; sales without a customer are left out.
+    public List<IdBucket> groupByCustomer(int fromDay, int toDay) {
+        return groupById(customerIds, fromDay, toDay);
+    }
+
+    // Sale ids of the k largest amounts in the day range, largest first, using a primitive min-heap of row indexes.
+    public long[] topSaleIdsByAmount(int k, int fromDay, int toDay) {
+        if (k <= 0) {
+            return new long[0];
+        }
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day < fromDay || day > toDay) {
+                continue;
+            }
+            if (heapSize < k) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (amountCents[i] > amountCents[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        long[] ids = new long[heapSize];
+        for (int n = heapSize - 1; n >= 0; n--) {
+            ids[n] = saleIds[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+        return ids;
+    }
+
+    private List<PeriodBucket> groupSparse(int fromDay, int toDay, int[] periods, boolean monthly) {
+        Map<Long, long[]> groups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= fromDay && day <= toDay) {
+                long key = (long) periods[i] * statusCount + statuses[i];
+                long[] totals = groups.computeIfAbsent(key, ignored -> new long[2]);
+                totals[0]++;
+                totals[1] += amountCents[i];
+            }
+        }
+        return groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new PeriodBucket(
+                        periodStartDay((int) Math.floorDiv(entry.getKey(), (long) statusCount), monthly),
+                        (int) Math.floorMod(entry.getKey(), (long) statusCount),
+                        entry.getValue()[0], entry.getValue()[1]))
+                .toList();
+    }
+
+    private List<IdBucket> groupById(long[] ids, int fromDay, int toDay) {
+        Map<Long, long[]> groups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= fromDay && day <= toDay && ids[i] != NO_ID) {
+                long[] totals = groups.computeIfAbsent(ids[i], ignored -> new long[2]);
+                totals[0]++;
+                totals[1] += amountCents[i];
+            }
+        }
+        return groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new IdBucket(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .toList();
+    }
+
+    private static int periodStartDay(int period, boolean monthly) {
+        if (!monthly) {
+            return period;
+        }
+        return (int) LocalDate.of(Math.floorDiv(period, 12), Math.floorMod(period, 12) + 1, 1).toEpochDay();
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (amountCents[heap[index]] >= amountCents[heap[parent]]) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) {
+                return;
+            }
+            int smallest = left + 1 < heapSize && amountCents[heap[left + 1]] < amountCents[heap[left]] ? left + 1 : left;
+            if (amountCents[heap[index]] <= amountCents[heap[smallest]]) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private int findRow(long saleId) {
+        int mask = indexKeys.length - 1;
+        for (int slot = home(saleId, mask); ; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == saleId) {
+                return indexRows[slot];
+            }
+            if (indexKeys[slot] == FREE_SLOT) {
+                return -1;
+            }
+        }
+    }
+
+    private void putRow(long saleId, int row) {
+        int mask = indexKeys.length - 1;
+        int slot = home(saleId, mask);
+        while (indexKeys[slot] != FREE_SLOT && indexKeys[slot] != saleId) {
+            slot = (slot + 1) & mask;
+        }
+        indexKeys[slot] = saleId;
+        indexRows[slot] = row;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move into the gap, so lookups never need tombstones.
+    private void removeKey(long saleId) {
+        int mask = indexKeys.length - 1;
+        int hole = home(saleId, mask);
+        while (indexKeys[hole] != saleId) {
+            hole = (hole + 1) & mask;
+        }
+        for (int slot = (hole + 1) & mask; indexKeys[slot] != FREE_SLOT; slot = (slot + 1) & mask) {
+            int home = home(indexKeys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                indexKeys[hole] = indexKeys[slot];
+                indexRows[hole] = indexRows[slot];
+                hole = slot;
+            }
+        }
+        indexKeys[hole] = FREE_SLOT;
+    }
+
+    private static int home(long saleId, int mask) {
+        long hash = saleId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= saleIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, saleIds.length * 2);
+        saleIds = Arrays.copyOf(saleIds, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        monthIndexes = Arrays.copyOf(monthIndexes, capacity);
+        repIds = Arrays.copyOf(repIds, capacity);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+
+        int indexCapacity = Integer.highestOneBit(capacity - 1) << 2;
+        if (indexCapacity > indexKeys.length) {
+            indexKeys = new long[indexCapacity];
+            indexRows = new int[indexCapacity];
+            for (int row = 0; row < size; row++) {
+                putRow(saleIds[row], row);
+            }
+        }
+    }
+}
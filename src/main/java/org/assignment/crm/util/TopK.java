@@ -0,0 +1,32 @@
+package org.assignment.crm.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class TopK {
+
+    private TopK() {
+    }
+
+    // Returns the k greatest items, greatest first, keeping at most k items on a min-heap (O(n log k)).
+    public static <T> List<T> select(Iterable<? extends T> items, int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(k + 1, comparator);
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.offer(item);
+            } else if (comparator.compare(item, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(item);
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(Collections.reverseOrder(comparator));
+        return result;
+    }
+}
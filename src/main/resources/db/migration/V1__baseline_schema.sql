@@ -0,0 +1,101 @@
+-- Baseline schema. Written for MySQL 8; also runs on H2 in MODE=MySQL, which the tests use.
+-- Besides the keys, the indexes follow the read paths: (filter column, id) for keyset-paged lists and
+-- (filter column, date) for per-customer / per-rep activity and period counts.
+
+create table users (
+    id          bigint       not null auto_increment,
+    user_name   varchar(255) not null,
+    email       varchar(255) not null,
+    password    varchar(255) not null,
+    firstname   varchar(255),
+    last_name   varchar(255),
+    role        enum ('ADMIN','MANAGER','SALES_REP','SUPPORT'),
+    status      enum ('ACTIVE','INACTIVE'),
+    manager_id  bigint,
+    created_at  datetime(6),
+    updated_at  datetime(6),
+    primary key (id),
+    constraint uk_users_user_name unique (user_name),
+    constraint uk_users_email unique (email),
+    constraint uk_users_password unique (password),
+    constraint fk_users_manager foreign key (manager_id) references users (id) on delete set null
+) engine=InnoDB;
+
+create index idx_users_role on users (role);
+create index idx_users_manager_id on users (manager_id);
+
+create table customer_details (
+    id                    bigint         not null auto_increment,
+    first_name            varchar(255)   not null,
+    last_name             varchar(255)   not null,
+    email                 varchar(255)   not null,
+    phone_number          varchar(255),
+    company               varchar(255),
+    address               varchar(255),
+    status                enum ('ACTIVE','INACTIVE'),
+    total_purchase_value  decimal(38,2),
+    value_segment         enum ('HIGH_VALUE','LOW_VALUE','MEDIUM_VALUE'),
+    segment_updated_at    datetime(6),
+    created_at            datetime(6),
+    updated_at            datetime(6),
+    primary key (id),
+    constraint uk_customer_email unique (email)
+) engine=InnoDB;
+
+create index idx_customer_value_segment on customer_details (value_segment, id);
+create index idx_customer_status_id on customer_details (status, id);
+
+create table sale_details (
+    id            bigint         not null auto_increment,
+    amount        decimal(38,2)  not null,
+    sale_date     datetime(6)    not null,
+    status        enum ('CANCELED','COMPLETED','PENDING'),
+    description   varchar(255),
+    customer_id   bigint,
+    sales_rep_id  bigint,
+    created_at    datetime(6),
+    updated_at    datetime(6),
+    primary key (id),
+    constraint fk_sale_customer foreign key (customer_id) references customer_details (id) on delete set null,
+    constraint fk_sale_sales_rep foreign key (sales_rep_id) references users (id) on delete set null
+) engine=InnoDB;
+
+create index idx_sale_sale_date on sale_details (sale_date);
+create index idx_sale_amount on sale_details (amount);
+create index idx_sale_rep_id on sale_details (sales_rep_id, id);
+create index idx_sale_customer_id on sale_details (customer_id, id);
+create index idx_sale_status_id on sale_details (status, id);
+create index idx_sale_customer_date on sale_details (customer_id, sale_date);
+create index idx_sale_rep_date on sale_details (sales_rep_id, sale_date);
+
+create table customer_interactions (
+    id                bigint       not null auto_increment,
+    type              enum ('CALL','EMAIL','MEETING','SUPPORT_TICKET'),
+    interaction_date  datetime(6)  not null,
+    notes             text,
+    customer_id       bigint,
+    user_id           bigint,
+    created_time      datetime(6),
+    update_time       datetime(6),
+    primary key (id),
+    constraint fk_interaction_customer foreign key (customer_id) references customer_details (id) on delete set null,
+    constraint fk_interaction_user foreign key (user_id) references users (id) on delete set null
+) engine=InnoDB;
+
+create index idx_interaction_date on customer_interactions (interaction_date);
+create index idx_interaction_customer_id on customer_interactions (customer_id, id);
+create index idx_interaction_user_id on customer_interactions (user_id, id);
+create index idx_interaction_type_id on customer_interactions (type, id);
+create index idx_interaction_customer_date on customer_interactions (customer_id, interaction_date);
+
+create table sale_rollups (
+    granularity   enum ('DAY','MONTH')                   not null,
+    period_start  date                                   not null,
+    sales_rep_id  bigint                                 not null,
+    status        enum ('CANCELED','COMPLETED','PENDING') not null,
+    period_year   integer                                not null,
+    period_month  integer                                not null,
+    sale_count    bigint                                 not null,
+    revenue       decimal(38,2)                          not null,
+    primary key (period_start, sales_rep_id, granularity, status)
+) engine=InnoDB;
@@ -0,0 +1,16 @@
+-- Table-backed id allocation (MySQL has no sequences), so Hibernate can batch inserts. One row per entity table;
+-- next_val holds the highest id already reserved (Hibernate stores the last used value); the application reserves
+-- the following 50 ids per fetch (pooled-lo), so a row seeded with max(id) continues right after the existing data.
+-- The auto_increment on the id columns stays for now: nothing relies on it, and it only moves forward past the ids
+-- written explicitly.
+
+create table id_sequences (
+    sequence_name  varchar(255) not null,
+    next_val       bigint,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_sequences (sequence_name, next_val) select 'users', coalesce(max(id), 0) from users;
+insert into id_sequences (sequence_name, next_val) select 'customer_details', coalesce(max(id), 0) from customer_details;
+insert into id_sequences (sequence_name, next_val) select 'sale_details', coalesce(max(id), 0) from sale_details;
+insert into id_sequences (sequence_name, next_val) select 'customer_interactions', coalesce(max(id), 0) from customer_interactions;
@@ -0,0 +1,4 @@
+-- Deleted and moved sales used to leave their old rollup buckets behind at zero. The application now deletes a
+-- bucket when its count reaches zero; this clears the ones already left over.
+
+delete from sale_rollups where sale_count = 0;
@@ -0,0 +1,215 @@
+package org.assignment.crm.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.assignment.crm.CustomerRelationshipManagementApplication;
+import org.assignment.crm.entity.Customer;
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.UserRepository;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+// Inserting 100k sales through SaleRepository.saveAll, one statement per row (jdbcBatchSize=1, what IDENTITY ids
+// forced) versus the configured batches of 50. Chunks of 1000 are flushed and cleared as a bulk load would.
+// In-memory H2 has no network hop (and its driver runs a batch row by row), so the data source counts round trips,
+// reported as the roundTrips secondary result, and roundTripMicros adds a simulated network delay to each. To measure a real MySQL instead,
+// pass -Dspring.datasource.url/username/password with roundTripMicros=0. Not run by surefire. Run with:
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+//   java -cp "target/test-classes:target/classes:$(cat target/test-classpath.txt)" org.assignment.crm.benchmark.BulkInsertBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private SaleRepository saleRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> customerIds;
+    private List<Long> repIds;
+    private long lastSeededSaleId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CustomerRelationshipManagementApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? countingRoundTrips(dataSource) : bean;
+                    }
+                }))
+                .properties(Map.of(
+                        "spring.datasource.url", "jdbc:h2:mem:bulk_insert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username", "sa",
+                        "spring.datasource.password", "",
+                        "spring.jpa.show-sql", "false",
+                        "server.port", "0",
+                        "logging.level.root", "WARN"))
+                .run();
+        saleRepository = context.getBean(SaleRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        customerIds = context.getBean(CustomerRepository.class).findAll().stream().map(Customer::getId).toList();
+        repIds = context.getBean(UserRepository.class).findAll().stream().map(User::getId).toList();
+        lastSeededSaleId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from sale_details", Long.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetRoundTrips() {
+        roundTrips.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedSales() {
+        jdbcTemplate.update("delete from sale_details where id > ?", lastSeededSaleId);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    // Round trips of the measured insert; JMH reports the field next to the time.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTripCounter {
+
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+        }
+    }
+
+    @Benchmark
+    public long insertSales(RoundTripCounter counter) {
+        long saved = transactionTemplate.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            Random random = new Random(42);
+            LocalDateTime now = LocalDateTime.now();
+            long inserted = 0;
+            while (inserted < ROWS) {
+                List<Sale> chunk = new ArrayList<>(CHUNK);
+                for (int i = 0; i < CHUNK; i++) {
+                    chunk.add(new Sale(null, BigDecimal.valueOf(random.nextInt(500_000), 2), now, SaleStatus.COMPLETED,
+                            "Bulk load", entityManager.getReference(Customer.class, pick(customerIds, random)),
+                            entityManager.getReference(User.class, pick(repIds, random)), now, now));
+                }
+                saleRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+                inserted += chunk.size();
+            }
+            return inserted;
+        });
+        counter.roundTrips += roundTrips.getAndSet(0);
+        return saved;
+    }
+
+    // Counts every statement execution and commit against the database, and delays each by roundTripMicros.
+    private DataSource countingRoundTrips(DataSource target) {
+        return proxy(DataSource.class, target, (method, result) -> result instanceof Connection connection
+                ? proxy(Connection.class, connection, (connectionMethod, connectionResult) -> {
+                    if (connectionMethod.getName().equals("commit")) {
+                        roundTrip();
+                    }
+                    return connectionResult instanceof PreparedStatement statement
+                            ? proxy(PreparedStatement.class, statement, (statementMethod, statementResult) -> statementResult)
+                            : connectionResult;
+                })
+                : result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, BiFunction<Method, Object, Object> afterCall) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (type == PreparedStatement.class && method.getName().startsWith("execute")) {
+                roundTrip();
+            }
+            try {
+                return afterCall.apply(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,134 @@
+package org.assignment.crm.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.entity.Customer;
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.enums.UserRole;
+import org.assignment.crm.enums.UserStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One list page as the managed entity graph (sale -> customer, rep -> manager) versus the SaleSummary projection:
+// time to build and serialize the page, with bytes per row logged at setup. Add "-prof gc" for allocation per row.
+// Not run by surefire. Run with:
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+//   java -cp "target/test-classes:target/classes:$(cat target/test-classpath.txt)" org.assignment.crm.benchmark.ListPayloadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListPayloadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListPayloadBenchmark.class);
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private List<Sale> entities;
+    private List<SaleSummary> summaries;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        User manager = user(2L, "manager_test", null);
+        List<User> reps = new ArrayList<>();
+        for (long id = 3; id < 13; id++) {
+            reps.add(user(id, "sales_rep" + id, manager));
+        }
+
+        entities = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            Customer customer = new Customer();
+            customer.setId(id);
+            customer.setFirstName("Customer");
+            customer.setLastName("No" + id);
+            customer.setEmail("customer" + id + "@example.com");
+            customer.setPhoneNumber("+1-555-0100");
+            customer.setCompany("Example Corp");
+            customer.setAddress("1 Main Street, Springfield");
+            customer.setStatus(CustomerStatus.ACTIVE);
+            customer.setTotalPurchaseValue(BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+            customer.setCreatedAt(LocalDateTime.now());
+            customer.setUpdatedAt(LocalDateTime.now());
+
+            Sale sale = new Sale(id, BigDecimal.valueOf(random.nextInt(500_000), 2), LocalDateTime.now(),
+                    SaleStatus.COMPLETED, "Annual license", customer, reps.get(random.nextInt(reps.size())),
+                    LocalDateTime.now(), LocalDateTime.now());
+            entities.add(sale);
+        }
+        summaries = entities.stream().map(ListPayloadBenchmark::toSummary).toList();
+
+        logger.info("Bytes per row for a page of {}: entity={} summary={}", pageSize,
+                objectMapper.writeValueAsBytes(entities).length / pageSize,
+                objectMapper.writeValueAsBytes(summaries).length / pageSize);
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public List<SaleSummary> buildSummaries() {
+        return entities.stream().map(ListPayloadBenchmark::toSummary).toList();
+    }
+
+    private static SaleSummary toSummary(Sale sale) {
+        Customer customer = sale.getCustomer();
+        User rep = sale.getSalesRep();
+        return new SaleSummary(sale.getId(), sale.getAmount(), sale.getSaleDate(), sale.getStatus(), sale.getDescription(),
+                customer.getId(), customer.getFirstName() + " " + customer.getLastName(),
+                rep.getId(), rep.getFirstname() + " " + rep.getLastName());
+    }
+
+    private static User user(long id, String userName, User manager) {
+        return new User(id, userName, userName + "@company.com", "$2a$10$abcdefghijklmnopqrstuv0123456789ABCDEFGHIJKLMNOPQRSTU",
+                "First", "Last", manager == null ? UserRole.MANAGER : UserRole.SALES_REP, UserStatus.ACTIVE, manager,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListPayloadBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
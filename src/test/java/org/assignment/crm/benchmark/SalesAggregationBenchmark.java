@@ -0,0 +1,141 @@
+package org.assignment.crm.benchmark;
+
+import org.assignment.crm.entity.Customer;
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.util.SalesColumns;
+import org.assignment.crm.util.TopK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity-stream aggregation (the pre-snapshot report path) versus the primitive column snapshot.
+// Not run by surefire. Run with:
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+//   java -cp "target/test-classes:target/classes:$(cat target/test-classpath.txt)" org.assignment.crm.benchmark.SalesAggregationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalesAggregationBenchmark {
+
+    @Param({"10000", "100000"})
+    private int saleCount;
+
+    private List<Sale> sales;
+    private SalesColumns columns;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SaleStatus[] statuses = SaleStatus.values();
+        LocalDate base = LocalDate.of(2022, 1, 1);
+        from = base.plusDays(180);
+        to = base.plusDays(900);
+
+        List<User> reps = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            User rep = new User();
+            rep.setId(id);
+            reps.add(rep);
+        }
+        List<Customer> customers = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            Customer customer = new Customer();
+            customer.setId(id);
+            customers.add(customer);
+        }
+
+        sales = new ArrayList<>(saleCount);
+        columns = new SalesColumns(statuses.length);
+        for (long id = 1; id <= saleCount; id++) {
+            Sale sale = new Sale();
+            sale.setId(id);
+            sale.setAmount(BigDecimal.valueOf(random.nextInt(5_000_000), 2));
+            sale.setSaleDate(base.plusDays(random.nextInt(1_095)).atTime(random.nextInt(24), 0));
+            sale.setStatus(statuses[random.nextInt(statuses.length)]);
+            sale.setSalesRep(reps.get(random.nextInt(reps.size())));
+            sale.setCustomer(customers.get(random.nextInt(customers.size())));
+            sales.add(sale);
+
+            columns.upsert(id, SalesColumns.toCents(sale.getAmount()), sale.getSaleDate().toLocalDate(),
+                    sale.getSalesRep().getId(), sale.getCustomer().getId(), sale.getStatus().ordinal());
+        }
+    }
+
+    @Benchmark
+    public void entityStream(Blackhole blackhole) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<Sale> inRange = sales.stream()
+                .filter(sale -> !sale.getSaleDate().isBefore(start) && sale.getSaleDate().isBefore(end))
+                .toList();
+
+        BigDecimal revenue = inRange.stream().map(Sale::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<YearMonth, Map<SaleStatus, BigDecimal>> byMonthAndStatus = inRange.stream()
+                .collect(Collectors.groupingBy(sale -> YearMonth.from(sale.getSaleDate()),
+                        Collectors.groupingBy(Sale::getStatus,
+                                Collectors.reducing(BigDecimal.ZERO, Sale::getAmount, BigDecimal::add))));
+        List<Sale> top = TopK.select(inRange, 10, Comparator.comparing(Sale::getAmount));
+
+        blackhole.consume(inRange.size());
+        blackhole.consume(revenue);
+        blackhole.consume(byMonthAndStatus);
+        blackhole.consume(top);
+    }
+
+    @Benchmark
+    public void columnSnapshot(Blackhole blackhole) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+
+        List<SalesColumns.PeriodBucket> byMonthAndStatus = columns.groupByPeriodAndStatus(fromDay, toDay, true);
+        long count = 0;
+        long revenueCents = 0;
+        for (SalesColumns.PeriodBucket bucket : byMonthAndStatus) {
+            count += bucket.count();
+            revenueCents += bucket.revenueCents();
+        }
+
+        blackhole.consume(count);
+        blackhole.consume(revenueCents);
+        blackhole.consume(byMonthAndStatus);
+        blackhole.consume(columns.topSaleIdsByAmount(10, fromDay, toDay));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SalesAggregationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,248 @@
+package org.assignment.crm.config;
+
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.service.SalesSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two embedded databases stand in for the primary and the replica; each one answers "which database am I" from its
+// own server_role table, and the replica's lag is whatever its replica_status table says.
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate replicaAdmin;
+    private ReplicaLagGuard lagGuard;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private final SettableClock clock = new SettableClock();
+    private ThreadPoolTaskExecutor worker;
+
+    @BeforeEach
+    void startDatabases() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaAdmin = new JdbcTemplate(replica);
+        replicaAdmin.execute("create table replica_status (seconds_behind_source int)");
+        setReplicaLag(0);
+
+        lagGuard = new ReplicaLagGuard(replica, "select seconds_behind_source from replica_status", Duration.ofSeconds(5),
+                clock);
+        lagGuard.check();
+        DataSource routing = ReadWriteRoutingDataSource.wrap(primary, replica, lagGuard);
+        jdbc = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+
+        worker = new ThreadPoolTaskExecutor();
+        worker.setCorePoolSize(1);
+        worker.setTaskDecorator(new ReadYourWritesTaskDecorator());
+        worker.initialize();
+    }
+
+    @AfterEach
+    void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        worker.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(serverRole(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndWorkOutsideATransactionGoToThePrimary() {
+        assertThat(serverRole(false)).isEqualTo("primary");
+        assertThat(jdbc.queryForObject("select name from server_role", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLagsAndReturnOnceItCatchesUp() {
+        setReplicaLag(30);
+        lagGuard.check();
+        assertThat(serverRole(true)).isEqualTo("primary");
+
+        setReplicaLag(2);
+        lagGuard.check();
+        assertThat(serverRole(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnThePrimaryWhenReplicationIsStoppedOrTheLagCannotBeRead() {
+        replicaAdmin.update("update replica_status set seconds_behind_source = null");
+        lagGuard.check();
+        assertThat(serverRole(true)).isEqualTo("primary");
+
+        setReplicaLag(0);
+        lagGuard.check();
+        replicaAdmin.execute("drop table replica_status");
+        lagGuard.check();
+        assertThat(serverRole(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void aRequestThatHasWrittenReadsItsOwnWritesFromThePrimary() {
+        startRequest(new MockHttpServletRequest());
+        assertThat(serverRole(true)).isEqualTo("replica");
+        assertThat(serverRole(false)).isEqualTo("primary");
+        assertThat(serverRole(true)).isEqualTo("primary");
+
+        startRequest(new MockHttpServletRequest());
+        assertThat(serverRole(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void aClientCanAskForReadYourWritesOnALaterRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWrites.HEADER, "true");
+        startRequest(request);
+
+        assertThat(serverRole(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void writesOutsideARequestDoNotPinLaterReadsOnTheSameThread() {
+        assertThat(serverRole(false)).isEqualTo("primary");
+        assertThat(serverRole(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void aRequestThatHasWrittenReadsFromThePrimaryAfterAnExecutorHop() throws Exception {
+        startRequest(new MockHttpServletRequest());
+        assertThat(worker.submit(() -> serverRole(true)).get()).isEqualTo("replica");
+
+        assertThat(serverRole(false)).isEqualTo("primary");
+
+        assertThat(worker.submit(() -> serverRole(true)).get()).isEqualTo("primary");
+    }
+
+    @Test
+    void aTaskThatOutlivesItsRequestReadsFromThePrimary() throws Exception {
+        ServletRequestAttributes request = startRequest(new MockHttpServletRequest());
+        request.requestCompleted();
+
+        assertThat(worker.submit(() -> serverRole(true)).get()).isEqualTo("primary");
+        assertThat(worker.submit(() -> serverRole(false)).get()).isEqualTo("primary");
+    }
+
+    @Test
+    void recomputesReadThePrimaryUntilTheReplicaHasTheLastCommit() throws Exception {
+        assertThat(serverRole(false)).isEqualTo("primary");
+        lagGuard.check();
+
+        assertThat(serverRole(true)).isEqualTo("replica");
+        assertThat(ReadYourWrites.recompute(() -> serverRole(true))).isEqualTo("primary");
+        assertThat(ReadYourWrites.recompute(() -> submitAndWait(() -> serverRole(true)))).isEqualTo("primary");
+
+        clock.advance(Duration.ofSeconds(2));
+        lagGuard.check();
+
+        assertThat(ReadYourWrites.recompute(() -> serverRole(true))).isEqualTo("replica");
+        assertThat(ReadYourWrites.recompute(() -> submitAndWait(() -> serverRole(true)))).isEqualTo("replica");
+    }
+
+    @Test
+    void theSalesSnapshotLoadsFromThePrimaryUntilTheReplicaHasTheLastCommit() {
+        List<String> loadedFrom = new ArrayList<>();
+        SaleRepository saleRepository = mock(SaleRepository.class);
+        when(saleRepository.streamColumnRows()).thenAnswer(invocation -> {
+            loadedFrom.add(jdbc.queryForObject("select name from server_role", String.class));
+            return Stream.empty();
+        });
+        SalesSnapshotService salesSnapshotService = new SalesSnapshotService();
+        ReflectionTestUtils.setField(salesSnapshotService, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(salesSnapshotService, "transactionManager", transactionManager);
+
+        assertThat(serverRole(false)).isEqualTo("primary");
+        lagGuard.check();
+        salesSnapshotService.rebuild();
+
+        clock.advance(Duration.ofSeconds(2));
+        lagGuard.check();
+        salesSnapshotService.rebuild();
+
+        assertThat(loadedFrom).containsExactly("primary", "replica");
+    }
+
+    private String submitAndWait(Callable<String> task) {
+        try {
+            return worker.submit(task).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serverRole(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbc.queryForObject("select name from server_role", String.class));
+    }
+
+    private void setReplicaLag(int seconds) {
+        replicaAdmin.update("delete from replica_status");
+        replicaAdmin.update("insert into replica_status values (?)", seconds);
+    }
+
+    private static ServletRequestAttributes startRequest(MockHttpServletRequest request) {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        return attributes;
+    }
+
+    private static DataSource database(String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate admin = new JdbcTemplate(dataSource);
+        admin.execute("create table server_role (name varchar(16))");
+        admin.update("insert into server_role values (?)", role);
+        return dataSource;
+    }
+
+    private static class SettableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
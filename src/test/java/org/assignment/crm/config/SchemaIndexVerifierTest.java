@@ -0,0 +1,51 @@
+package org.assignment.crm.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaIndexVerifierTest {
+
+    private final SchemaIndexVerifier verifier = new SchemaIndexVerifier();
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void migrateFreshDatabase() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        ReflectionTestUtils.setField(verifier, "dataSource", dataSource);
+    }
+
+    @Test
+    void migratedSchemaHasEveryRequiredIndex() {
+        assertThat(verifier.findMissingIndexes()).isEmpty();
+        verifier.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void startupFailsWhenAReadPathIndexIsMissing() {
+        new JdbcTemplate(dataSource).execute("drop index idx_sale_rep_date");
+
+        assertThatThrownBy(verifier::afterSingletonsInstantiated)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sale_details(sales_rep_id, sale_date)");
+    }
+
+    @Test
+    void aWiderIndexWithTheSameLeadingColumnsCounts() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop index idx_users_role");
+        jdbc.execute("create index idx_users_role_status on users (role, status)");
+
+        assertThat(verifier.findMissingIndexes()).isEmpty();
+    }
+}
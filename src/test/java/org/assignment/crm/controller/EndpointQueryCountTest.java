@@ -0,0 +1,147 @@
+package org.assignment.crm.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.assignment.crm.entity.Customer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs against the seeded demo data, where list pages span several customers, reps and managers: one select per related
+// row would push every count below past its expected value. Counts are taken with an empty second-level cache; the
+// region prefix keeps this context's database apart from the cache regions of the other test contexts.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:crm_query_count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.region_prefix=crm_query_count"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class EndpointQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @ParameterizedTest(name = "{0} -> {1} statements")
+    @CsvSource({
+            "/api/sales?limit=500,                        1",
+            "/api/sales/1,                                1",
+            "/api/sales/rep/3,                            2",
+            "/api/sales/customer/2,                       2",
+            "/api/sales/status/COMPLETED,                 1",
+            "/api/sales/completed,                        1",
+            "/api/customer-interactions?limit=500,        1",
+            "/api/customer-interactions/1,                1",
+            "/api/customer-interactions/customer/2,       2",
+            "/api/customer-interactions/user/3,           2",
+            "/api/customer-interactions/type/EMAIL,       1",
+            "/api/customer-interactions/recent?limit=10,  1",
+            "/api/customers?limit=500,                    1",
+            "/api/customers/1,                            1",
+            "/api/users?limit=500,                        1",
+            "/api/users/3,                                1",
+            "/api/users/username/sales_demo1,             1",
+            "/api/users/2/subordinates,                   2",
+            "/api/reports/customer/2/activity,            3"
+    })
+    void readEndpointsIssueAFixedNumberOfStatements(String url, long expectedStatements) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    }
+
+    @ParameterizedTest(name = "{0} again -> 0 statements")
+    @ValueSource(strings = {
+            "/api/customers/1",
+            "/api/customers/email/rajesh.kumar@techcorp.in",
+            "/api/users/3",
+            "/api/users/username/sales_demo1"
+    })
+    void repeatedCustomerAndUserReadsAreServedFromTheSecondLevelCache(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void aSaleWriteLeavesUnrelatedCacheEntriesInPlace() throws Exception {
+        mockMvc.perform(get("/api/users/4")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"amount\": 10.00, \"saleDate\": \"2024-05-01T10:00:00\", \"customer\": {\"id\": 1}, \"salesRep\": {\"id\": 3}}"))
+                .andExpect(status().isCreated());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/users/4")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void customerCacheHitRatioIsPublished() throws Exception {
+        mockMvc.perform(get("/api/customers/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/customers/1")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("crm.entity.cache.hit.ratio").tag("region", Customer.CACHE_REGION).gauge().value())
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    void saleDetailSerializesFetchedPartiesAndReferencesTheRest() throws Exception {
+        mockMvc.perform(get("/api/sales/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.email").isString())
+                .andExpect(jsonPath("$.salesRep.userName").value("sales_demo1"))
+                .andExpect(jsonPath("$.salesRep.manager.id").value(2))
+                .andExpect(jsonPath("$.salesRep.manager.userName").doesNotExist())
+                .andExpect(jsonPath("$.salesRep.password").doesNotExist());
+    }
+
+    @Test
+    void ndjsonSaleExportStreamsSummariesInOneStatement() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/sales").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+
+        String firstLine = started.getResponse().getContentAsString().split("\n")[0];
+        assertThat(firstLine).startsWith("{\"id\":1,").contains("\"customerName\":").contains("\"salesRepName\":");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,75 @@
+package org.assignment.crm.controller;
+
+import org.assignment.crm.service.DataVersionService;
+import org.assignment.crm.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportControllerTest {
+
+    @Mock
+    private ReportService reportService;
+
+    @Spy
+    private DataVersionService dataVersionService;
+
+    @InjectMocks
+    private ReportController reportController;
+
+    @BeforeEach
+    void runAsTheOnlyNode() {
+        ReflectionTestUtils.setField(dataVersionService, "singleNode", true);
+    }
+
+    @Test
+    void partialActivityReportIsNotTaggedWithTheCurrentVersion() {
+        when(reportService.getCustomerActivityReport(2L)).thenReturn(Map.of("customerId", 2L, "partial", true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        reportController.getCustomerActivity(2L, new ServletWebRequest(activityRequest(), response));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-partial\"").isNotEqualTo(dataVersionService.etag());
+
+        // Sending the partial tag back must not turn the next poll into a 304 for the incomplete body.
+        MockHttpServletRequest poll = activityRequest();
+        poll.addHeader(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse pollResponse = new MockHttpServletResponse();
+        when(reportService.getCustomerActivityReport(2L)).thenReturn(Map.of("customerId", 2L, "partial", false));
+
+        Map<String, Object> report = reportController.getCustomerActivity(2L, new ServletWebRequest(poll, pollResponse));
+
+        assertThat(report).containsEntry("partial", false);
+        assertThat(pollResponse.getStatus()).isEqualTo(200);
+        assertThat(pollResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(dataVersionService.etag());
+    }
+
+    @Test
+    void completeActivityReportKeepsTheVersionTag() {
+        when(reportService.getCustomerActivityReport(2L)).thenReturn(Map.of("customerId", 2L, "partial", false));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        reportController.getCustomerActivity(2L, new ServletWebRequest(activityRequest(), response));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(dataVersionService.etag());
+    }
+
+    private static MockHttpServletRequest activityRequest() {
+        return new MockHttpServletRequest("GET", "/api/reports/customer/2/activity");
+    }
+}
@@ -1,5 +1,7 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.InteractionSummary;
+import org.assignment.crm.dto.KeysetPageRequest;
 import org.assignment.crm.entity.Customer;
 import org.assignment.crm.entity.CustomerInteraction;
 import org.assignment.crm.entity.User;
@@ -15,7 +17,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +41,9 @@ class CustomerInteractionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CustomerInteractionService service;
 
@@ -76,22 +84,36 @@ class CustomerInteractionServiceTest {
     @Test
     void getInteractionsByCustomerId_checksCustomerExists() {
         when(customerRepository.findById(5L)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> service.getInteractionsByCustomerId(5L))
+        assertThatThrownBy(() -> service.getInteractionsByCustomerId(5L, KeysetPageRequest.first(10)))
                 .isInstanceOf(CustomerNotFound.class);
     }
 
     @Test
     void getInteractionsByUserId_checksUserExists() {
         when(userRepository.findById(6L)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> service.getInteractionsByUserId(6L))
+        assertThatThrownBy(() -> service.getInteractionsByUserId(6L, KeysetPageRequest.first(10)))
                 .isInstanceOf(UserNotFound.class);
     }
 
     @Test
     void getInteractionsByType_delegatesToRepo() {
-        when(interactionRepository.findCustomerInteractionByType(InteractionType.EMAIL))
-                .thenReturn(List.of(new CustomerInteraction()));
-        assertThat(service.getInteractionsByType(InteractionType.EMAIL)).hasSize(1);
-        verify(interactionRepository).findCustomerInteractionByType(InteractionType.EMAIL);
+        when(interactionRepository.findSummariesByTypeAfter(InteractionType.EMAIL, 0L, PageRequest.ofSize(11)))
+                .thenReturn(List.of(summary(1L)));
+        assertThat(service.getInteractionsByType(InteractionType.EMAIL, KeysetPageRequest.first(10)).items()).hasSize(1);
+        verify(interactionRepository).findSummariesByTypeAfter(InteractionType.EMAIL, 0L, PageRequest.ofSize(11));
+    }
+
+    @Test
+    void getRecentInteractions_usesOrderedLimitQuery() {
+        InteractionSummary latest = summary(2L);
+        when(interactionRepository.findRecentSummaries(PageRequest.of(0, 5)))
+                .thenReturn(List.of(latest));
+
+        assertThat(service.getRecentInteractions(5)).containsExactly(latest);
+        verify(interactionRepository, never()).findAll();
+    }
+
+    private static InteractionSummary summary(long id) {
+        return new InteractionSummary(id, InteractionType.EMAIL, LocalDateTime.now(), null, 5L, "Ada Lovelace", 6L, "Sam Support");
     }
 }
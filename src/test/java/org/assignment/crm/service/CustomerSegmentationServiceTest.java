@@ -0,0 +1,114 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.CustomerInteractionCountRow;
+import org.assignment.crm.dto.CustomerRevenueRow;
+import org.assignment.crm.enums.CustomerValueSegment;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSegmentationServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @InjectMocks
+    private CustomerSegmentationService customerSegmentationService;
+
+    private ExecutorService segmentationExecutor;
+
+    @BeforeEach
+    void setUp() {
+        segmentationExecutor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(customerSegmentationService, "segmentationExecutor", segmentationExecutor);
+        ReflectionTestUtils.setField(customerSegmentationService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        segmentationExecutor.shutdownNow();
+    }
+
+    @Test
+    void classify_matchesActivityReportThresholds() {
+        assertThat(CustomerValueSegment.classify(new BigDecimal("10000.01"), 6)).isEqualTo(CustomerValueSegment.HIGH_VALUE);
+        assertThat(CustomerValueSegment.classify(new BigDecimal("20000"), 5)).isEqualTo(CustomerValueSegment.MEDIUM_VALUE);
+        assertThat(CustomerValueSegment.classify(BigDecimal.ZERO, 4)).isEqualTo(CustomerValueSegment.MEDIUM_VALUE);
+        assertThat(CustomerValueSegment.classify(new BigDecimal("5000"), 3)).isEqualTo(CustomerValueSegment.LOW_VALUE);
+    }
+
+    @Test
+    void recomputeAll_segmentsEveryChunkWithGroupedQueries() {
+        when(customerRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(customerRepository.findIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of(5L));
+        when(customerRepository.findIdsAfter(5L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        CustomerRevenueRow richRevenue = revenue(1L, "15000");
+        CustomerInteractionCountRow richInteractions = interactions(1L, 8L);
+        CustomerInteractionCountRow engaged = interactions(5L, 4L);
+        when(saleRepository.sumRevenueByCustomerBetween(1L, 2L)).thenReturn(List.of(richRevenue));
+        when(customerInteractionRepository.countByCustomerBetween(1L, 2L)).thenReturn(List.of(richInteractions));
+        when(saleRepository.sumRevenueByCustomerBetween(5L, 5L)).thenReturn(List.of());
+        when(customerInteractionRepository.countByCustomerBetween(5L, 5L)).thenReturn(List.of(engaged));
+
+        Map<CustomerValueSegment, Long> totals = customerSegmentationService.recomputeAll();
+
+        assertThat(totals).containsOnly(
+                Map.entry(CustomerValueSegment.HIGH_VALUE, 1L),
+                Map.entry(CustomerValueSegment.MEDIUM_VALUE, 1L),
+                Map.entry(CustomerValueSegment.LOW_VALUE, 1L));
+        verify(customerRepository).updateValueSegment(eq(CustomerValueSegment.HIGH_VALUE), any(LocalDateTime.class), eq(List.of(1L)));
+        verify(customerRepository).updateValueSegment(eq(CustomerValueSegment.LOW_VALUE), any(LocalDateTime.class), eq(List.of(2L)));
+        verify(customerRepository).updateValueSegment(eq(CustomerValueSegment.MEDIUM_VALUE), any(LocalDateTime.class), eq(List.of(5L)));
+        verify(dataVersionService).bump();
+    }
+
+    private CustomerRevenueRow revenue(Long customerId, String amount) {
+        CustomerRevenueRow row = mock(CustomerRevenueRow.class);
+        when(row.getCustomerId()).thenReturn(customerId);
+        when(row.getRevenue()).thenReturn(new BigDecimal(amount));
+        return row;
+    }
+
+    private CustomerInteractionCountRow interactions(Long customerId, Long count) {
+        CustomerInteractionCountRow row = mock(CustomerInteractionCountRow.class);
+        when(row.getCustomerId()).thenReturn(customerId);
+        when(row.getInteractionCount()).thenReturn(count);
+        return row;
+    }
+}
@@ -0,0 +1,193 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.CustomerStatusCountRow;
+import org.assignment.crm.dto.SalesTotalRow;
+import org.assignment.crm.dto.TeamMemberSalesRow;
+import org.assignment.crm.dto.UserRoleCountRow;
+import org.assignment.crm.enums.CustomerStatus;
+import org.assignment.crm.enums.UserRole;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @Mock
+    private OrgHierarchyService orgHierarchyService;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @Test
+    void adminDashboardIsBuiltFromGroupedCounts() {
+        List<UserRoleCountRow> roleRows = List.of(
+                roleRow(UserRole.ADMIN, 1L),
+                roleRow(UserRole.SALES_REP, 4L),
+                roleRow(null, 2L));
+        List<CustomerStatusCountRow> statusRows = List.of(
+                statusRow(CustomerStatus.ACTIVE, 7L),
+                statusRow(CustomerStatus.INACTIVE, 3L));
+        when(userRepository.countGroupedByRole()).thenReturn(roleRows);
+        when(customerRepository.countGroupedByStatus()).thenReturn(statusRows);
+        when(saleRepository.count()).thenReturn(25L);
+        when(customerInteractionRepository.count()).thenReturn(40L);
+
+        Map<String, Object> data = dashboardService.getAdminDashboardData();
+
+        assertThat(data)
+                .containsEntry("totalUsers", 7L)
+                .containsEntry("adminUsers", 1L)
+                .containsEntry("managerUsers", 0L)
+                .containsEntry("salesRepUsers", 4L)
+                .containsEntry("supportUsers", 0L)
+                .containsEntry("totalCustomers", 10L)
+                .containsEntry("activeCustomers", 7L)
+                .containsEntry("totalSales", 25L)
+                .containsEntry("totalInteractions", 40L)
+                .containsEntry("dashboardType", "ADMIN_OVERVIEW");
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).findByRole(any());
+        verify(customerRepository, never()).findAll();
+        verify(saleRepository, never()).findAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    void managerTeamStatsUseOneQueryWhateverTheTeamSize(int teamSize) {
+        List<TeamMemberSalesRow> rows = new ArrayList<>();
+        for (long id = 1; id <= teamSize; id++) {
+            rows.add(teamRow(id, 2L, new BigDecimal("10.50")));
+        }
+        when(userRepository.findTeamSalesByManager(7L)).thenReturn(rows);
+
+        Map<String, Object> data = dashboardService.getManagerTeamStats(7L);
+
+        assertThat(data)
+                .containsEntry("teamSales", 2L * teamSize)
+                .containsEntry("teamSalesValue", new BigDecimal("10.50").multiply(BigDecimal.valueOf(teamSize)));
+        assertThat((List<?>) data.get("teamStats")).hasSize(teamSize);
+        verify(userRepository, times(1)).findTeamSalesByManager(7L);
+        verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(saleRepository, customerRepository, customerInteractionRepository);
+    }
+
+    @Test
+    void orgRollupTotalsTheWholeSubtreeInTwoQueries() {
+        List<Long> orgIds = List.of(2L, 3L, 4L, 5L);
+        SalesTotalRow sales = mock(SalesTotalRow.class);
+        when(sales.getSaleCount()).thenReturn(9L);
+        when(sales.getSalesValue()).thenReturn(new BigDecimal("900.00"));
+        when(orgHierarchyService.getSubordinateIds(1L)).thenReturn(orgIds);
+        when(orgHierarchyService.getDirectReportIds(1L)).thenReturn(List.of(2L, 3L));
+        when(saleRepository.sumBySalesRepIds(orgIds)).thenReturn(sales);
+        when(customerInteractionRepository.countByPerformedBy_IdIn(orgIds)).thenReturn(14L);
+
+        Map<String, Object> data = dashboardService.getOrgRollup(1L);
+
+        assertThat(data)
+                .containsEntry("orgSize", 4)
+                .containsEntry("orgDirectReports", 2)
+                .containsEntry("orgSales", 9L)
+                .containsEntry("orgSalesValue", new BigDecimal("900.00"))
+                .containsEntry("orgInteractions", 14L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void orgRollupOfAUserWithoutReportsSkipsTheQueries() {
+        when(orgHierarchyService.getSubordinateIds(3L)).thenReturn(List.of());
+        when(orgHierarchyService.getDirectReportIds(3L)).thenReturn(List.of());
+
+        Map<String, Object> data = dashboardService.getOrgRollup(3L);
+
+        assertThat(data)
+                .containsEntry("orgSize", 0)
+                .containsEntry("orgSales", 0L)
+                .containsEntry("orgSalesValue", BigDecimal.ZERO);
+        verifyNoInteractions(saleRepository, customerInteractionRepository);
+    }
+
+    @Test
+    void salesRepSnapshotCountsOnlyThisMonthsSalesForTheMonthTile() {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        when(saleRepository.countBySalesRep_Id(3L)).thenReturn(12L);
+        when(saleRepository.countBySalesRepAndSaleDateBetween(3L, monthStart, monthStart.plusMonths(1))).thenReturn(2L);
+        when(customerInteractionRepository.countByPerformedBy_Id(3L)).thenReturn(5L);
+
+        Map<String, Object> data = dashboardService.getUserSnapshot(UserRole.SALES_REP, 3L);
+
+        assertThat(data)
+                .containsEntry("mySales", 12L)
+                .containsEntry("salesThisMonth", 2L)
+                .containsEntry("myInteractions", 5L);
+    }
+
+    @Test
+    void supportRoleSnapshotCapsRecentInteractionsAtTheTotal() {
+        when(customerRepository.count()).thenReturn(8L);
+        when(customerInteractionRepository.count()).thenReturn(4L);
+
+        Map<String, Object> data = dashboardService.getRoleSnapshot(UserRole.SUPPORT);
+
+        assertThat(data)
+                .containsEntry("totalCustomers", 8L)
+                .containsEntry("totalInteractions", 4L)
+                .containsEntry("recentInteractions", 4L);
+        verify(customerInteractionRepository, never()).findRecentSummaries(any());
+    }
+
+    private static TeamMemberSalesRow teamRow(long id, long saleCount, BigDecimal salesValue) {
+        TeamMemberSalesRow row = mock(TeamMemberSalesRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getFirstname()).thenReturn("Rep");
+        when(row.getLastName()).thenReturn(String.valueOf(id));
+        when(row.getSaleCount()).thenReturn(saleCount);
+        when(row.getSalesValue()).thenReturn(salesValue);
+        return row;
+    }
+
+    private static UserRoleCountRow roleRow(UserRole role, long count) {
+        UserRoleCountRow row = mock(UserRoleCountRow.class);
+        when(row.getRole()).thenReturn(role);
+        when(row.getUserCount()).thenReturn(count);
+        return row;
+    }
+
+    private static CustomerStatusCountRow statusRow(CustomerStatus status, long count) {
+        CustomerStatusCountRow row = mock(CustomerStatusCountRow.class);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCustomerCount()).thenReturn(count);
+        return row;
+    }
+}
@@ -0,0 +1,136 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.enums.UserRole;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.assignment.crm.repository.CustomerRepository;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class DashboardSnapshotCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(DashboardService.class)
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+            new CacheConfiguration().dashboardSnapshotCacheCustomizer().customize(cacheManager);
+            return cacheManager;
+        }
+
+        @Bean
+        DataVersionService dataVersionService() {
+            return new DataVersionService();
+        }
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @MockitoBean
+    private SaleRepository saleRepository;
+
+    @MockitoBean
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @MockitoBean
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @BeforeEach
+    void clearSnapshots() {
+        cacheManager.getCache(CacheConfiguration.DASHBOARD_SNAPSHOTS).clear();
+    }
+
+    @Test
+    void concurrentLoginsShareOneRoleSnapshotComputation() throws Exception {
+        int logins = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        when(customerRepository.count()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return 42L;
+        });
+        when(customerInteractionRepository.count()).thenReturn(3L);
+
+        ExecutorService pool = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return dashboardService.getRoleSnapshot(UserRole.SALES_REP);
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, Object>> result : results) {
+                assertThat(result.get()).containsEntry("totalCustomers", 42L);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(customerRepository, times(1)).count();
+        verify(customerInteractionRepository, times(1)).count();
+    }
+
+    @Test
+    void userSnapshotsAreCachedPerUser() {
+        when(customerInteractionRepository.countByPerformedBy_Id(anyLong())).thenReturn(4L);
+
+        dashboardService.getUserSnapshot(UserRole.SUPPORT, 5L);
+        dashboardService.getUserSnapshot(UserRole.SUPPORT, 5L);
+        dashboardService.getUserSnapshot(UserRole.SUPPORT, 6L);
+
+        verify(customerInteractionRepository, times(1)).countByPerformedBy_Id(5L);
+        verify(customerInteractionRepository, times(1)).countByPerformedBy_Id(6L);
+    }
+
+    @Test
+    void aWriteStartsAFreshRoleSnapshot() {
+        when(customerRepository.count()).thenReturn(5L, 6L);
+
+        assertThat(dashboardService.getRoleSnapshot(UserRole.SALES_REP)).containsEntry("totalCustomers", 5L);
+        assertThat(dashboardService.getRoleSnapshot(UserRole.SALES_REP)).containsEntry("totalCustomers", 5L);
+        dataVersionService.bump();
+
+        assertThat(dashboardService.getRoleSnapshot(UserRole.SALES_REP)).containsEntry("totalCustomers", 6L);
+        verify(customerRepository, times(2)).count();
+    }
+}
@@ -0,0 +1,206 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.DashboardDelta;
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.enums.InteractionType;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.exception.DashboardSubscriberLimitExceeded;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStreamServiceTest {
+
+    @Mock
+    private KpiAggregateService kpiAggregateService;
+
+    @InjectMocks
+    private DashboardStreamService dashboardStreamService;
+
+    private final KpiTotals totals = new KpiTotals(4, 2, 3, new BigDecimal("150.00"));
+
+    private final List<Runnable> streamTasks = new ArrayList<>();
+
+    @BeforeEach
+    void sendOnTheCallingThread() {
+        ReflectionTestUtils.setField(dashboardStreamService, "dashboardStreamExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void subscriberGetsSnapshotOnConnectThenOnlyDeltas() {
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        dashboardStreamService.register(emitter);
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.updated(
+                sale(SaleStatus.PENDING, "100.00"), sale(SaleStatus.COMPLETED, "120.00")));
+        dashboardStreamService.onInteractionChanged(new InteractionChangedEvent(
+                ChangeType.CREATED, 9L, 1L, 1L, 3L, InteractionType.values()[0], LocalDateTime.now()));
+
+        assertThat(emitter.events).hasSize(3);
+        assertThat(emitter.events.get(0)).containsEntry("event", "snapshot");
+        assertThat(emitter.events.get(0).get("data")).isEqualTo(Map.of("sequence", 0L, "totals", totals));
+
+        DashboardDelta saleDelta = (DashboardDelta) emitter.events.get(1).get("data");
+        assertThat(saleDelta.sequence()).isEqualTo(1L);
+        assertThat(saleDelta.entity()).isEqualTo("sale");
+        assertThat(saleDelta.previousStatus()).isEqualTo(SaleStatus.PENDING);
+        assertThat(saleDelta.status()).isEqualTo(SaleStatus.COMPLETED);
+        assertThat(saleDelta.revenueDelta()).isEqualByComparingTo("20.00");
+        assertThat(saleDelta.totals()).isEqualTo(totals);
+
+        DashboardDelta interactionDelta = (DashboardDelta) emitter.events.get(2).get("data");
+        assertThat(interactionDelta.sequence()).isEqualTo(2L);
+        assertThat(interactionDelta.entity()).isEqualTo("interaction");
+        assertThat(interactionDelta.id()).isEqualTo(9L);
+    }
+
+    @Test
+    void unchangedSaleUpdatesAreNotPushed() {
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        RecordingEmitter emitter = new RecordingEmitter();
+        dashboardStreamService.register(emitter);
+
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.updated(
+                sale(SaleStatus.PENDING, "100.00"), sale(SaleStatus.PENDING, "100.0")));
+
+        assertThat(emitter.events).hasSize(1);
+    }
+
+    @Test
+    void subscribersBeyondTheCapAreRejected() {
+        ReflectionTestUtils.setField(dashboardStreamService, "maxSubscribers", 2);
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        dashboardStreamService.register(new RecordingEmitter());
+        dashboardStreamService.register(new RecordingEmitter());
+
+        assertThatThrownBy(() -> dashboardStreamService.register(new RecordingEmitter()))
+                .isInstanceOf(DashboardSubscriberLimitExceeded.class);
+        assertThat(dashboardStreamService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void brokenSubscribersAreDroppedOnHeartbeat() {
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        RecordingEmitter healthy = new RecordingEmitter();
+        RecordingEmitter broken = new RecordingEmitter();
+        dashboardStreamService.register(healthy);
+        dashboardStreamService.register(broken);
+        broken.failNextSend = true;
+
+        dashboardStreamService.sendHeartbeats();
+
+        assertThat(dashboardStreamService.getSubscriberCount()).isEqualTo(1);
+        assertThat(healthy.events).hasSize(2);
+        assertThat(healthy.events.get(1)).containsEntry("comment", "heartbeat");
+    }
+
+    @Test
+    void deltasAreSentByTheStreamExecutorNotTheCommittingThread() {
+        ReflectionTestUtils.setField(dashboardStreamService, "dashboardStreamExecutor", (Executor) streamTasks::add);
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        RecordingEmitter emitter = new RecordingEmitter();
+        dashboardStreamService.register(emitter);
+
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.created(sale(SaleStatus.PENDING, "100.00")));
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.created(sale(SaleStatus.PENDING, "50.00")));
+
+        assertThat(emitter.events).isEmpty();
+        assertThat(streamTasks).hasSize(1);
+
+        streamTasks.remove(0).run();
+
+        assertThat(emitter.events).extracting(event -> event.get("event"))
+                .containsExactly("snapshot", "delta", "delta");
+        assertThat(streamTasks).isEmpty();
+    }
+
+    @Test
+    void subscriberThatFallsAQueueBehindIsClosed() {
+        ReflectionTestUtils.setField(dashboardStreamService, "dashboardStreamExecutor", (Executor) streamTasks::add);
+        ReflectionTestUtils.setField(dashboardStreamService, "queueCapacity", 2);
+        when(kpiAggregateService.getTotals()).thenReturn(totals);
+        RecordingEmitter stalled = new RecordingEmitter();
+        dashboardStreamService.register(stalled);
+
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.created(sale(SaleStatus.PENDING, "100.00")));
+        assertThat(stalled.completed).isFalse();
+        dashboardStreamService.onSaleChanged(SaleChangedEvent.created(sale(SaleStatus.PENDING, "50.00")));
+
+        assertThat(stalled.completed).isTrue();
+        assertThat(dashboardStreamService.getSubscriberCount()).isZero();
+
+        streamTasks.remove(0).run();
+        assertThat(stalled.events).isEmpty();
+    }
+
+    private static SaleSnapshot sale(SaleStatus status, String amount) {
+        return new SaleSnapshot(5L, 1L, 3L, new BigDecimal(amount), LocalDateTime.now(), status);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Map<String, Object>> events = new ArrayList<>();
+        private boolean failNextSend;
+        private boolean completed;
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failNextSend) {
+                failNextSend = false;
+                throw new IOException("Broken pipe");
+            }
+            events.add(parse(builder.build()));
+        }
+
+        // The builder renders to text fragments with the payload object in between; keep the field lines and the payload.
+        private static Map<String, Object> parse(Set<DataWithMediaType> parts) {
+            Map<String, Object> event = new HashMap<>();
+            for (DataWithMediaType part : parts) {
+                if (part.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        int colon = line.indexOf(':');
+                        if (colon == 0) {
+                            event.put("comment", line.substring(1));
+                        } else if (colon > 0 && !line.startsWith("data")) {
+                            event.put(line.substring(0, colon), line.substring(colon + 1));
+                        }
+                    }
+                } else {
+                    event.put("data", part.getData());
+                }
+            }
+            return event;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.assignment.crm.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.enums.DashboardTileStatus;
+import org.assignment.crm.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardTileServiceTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @InjectMocks
+    private DashboardTileService dashboardTileService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void wireCollaborators() {
+        ReflectionTestUtils.setField(dashboardTileService, "dashboardTileExecutor", executor);
+        ReflectionTestUtils.setField(dashboardTileService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(dashboardTileService, "cacheManager", new ConcurrentMapCacheManager(CacheConfiguration.DASHBOARD_TILES));
+        ReflectionTestUtils.setField(dashboardTileService, "environment",
+                new MockEnvironment().withProperty("crm.dashboard.tiles.org.timeout", "100ms"));
+        ReflectionTestUtils.setField(dashboardTileService, "tileTimeout", Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void tilesRunConcurrentlyAndEachLatencyIsRecorded() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(dashboardService.getRoleSnapshot(UserRole.SALES_REP)).thenAnswer(inv -> awaitPeer(bothStarted, Map.of("totalCustomers", 5L)));
+        when(dashboardService.getUserSnapshot(UserRole.SALES_REP, 3L)).thenAnswer(inv -> awaitPeer(bothStarted, Map.of("mySales", 2L)));
+
+        Map<String, Object> dashboard = dashboardTileService.compose(UserRole.SALES_REP, 3L);
+
+        assertThat(dashboard)
+                .containsEntry("totalCustomers", 5L)
+                .containsEntry("mySales", 2L)
+                .containsEntry("partial", false)
+                .containsEntry("tiles", Map.of("overview", DashboardTileStatus.READY, "personal", DashboardTileStatus.READY));
+        assertThat(meterRegistry.get(DashboardTileService.TILE_TIMER).tag("tile", "overview").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DashboardTileService.TILE_TIMER).tag("tile", "personal").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lateTileIsPendingFirstAndStaleOnceItHasAValue() throws Exception {
+        when(dashboardService.getRoleSnapshot(UserRole.MANAGER)).thenReturn(Map.of("totalCustomers", 5L));
+        when(dashboardService.getUserSnapshot(UserRole.MANAGER, 2L)).thenReturn(Map.of("teamSales", 4L));
+        when(dashboardService.getOrgRollup(2L))
+                .thenAnswer(inv -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return Map.of("orgSales", 9L);
+                })
+                .thenAnswer(inv -> {
+                    Thread.sleep(1000);
+                    return Map.of("orgSales", 10L);
+                });
+
+        Map<String, Object> first = dashboardTileService.compose(UserRole.MANAGER, 2L);
+
+        assertThat(first).containsEntry("teamSales", 4L).containsEntry("partial", true).doesNotContainKey("orgSales");
+        assertThat(tiles(first)).containsEntry("org", DashboardTileStatus.PENDING)
+                .containsEntry("team", DashboardTileStatus.READY);
+
+        release.countDown();
+        awaitTimerCount("org", 1);
+        Map<String, Object> second = dashboardTileService.compose(UserRole.MANAGER, 2L);
+
+        assertThat(second).containsEntry("orgSales", 9L).containsEntry("partial", true);
+        assertThat(tiles(second)).containsEntry("org", DashboardTileStatus.STALE);
+        assertThat(meterRegistry.get(DashboardTileService.LATE_TILE_COUNTER).tag("tile", "org").tag("status", "STALE").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failingTileIsReportedInsteadOfZeroed() {
+        when(dashboardService.getRoleSnapshot(UserRole.SUPPORT)).thenReturn(Map.of("totalCustomers", 5L));
+        when(dashboardService.getUserSnapshot(UserRole.SUPPORT, 5L)).thenThrow(new IllegalStateException("database unavailable"));
+
+        Map<String, Object> dashboard = dashboardTileService.compose(UserRole.SUPPORT, 5L);
+
+        assertThat(dashboard).containsEntry("totalCustomers", 5L).containsEntry("partial", true).doesNotContainKey("myInteractions");
+        assertThat(tiles(dashboard)).containsEntry("personal", DashboardTileStatus.FAILED);
+        assertThat(meterRegistry.get(DashboardTileService.TILE_TIMER).tag("tile", "personal").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, DashboardTileStatus> tiles(Map<String, Object> dashboard) {
+        return (Map<String, DashboardTileStatus>) dashboard.get("tiles");
+    }
+
+    private static Map<String, Object> awaitPeer(CountDownLatch bothStarted, Map<String, Object> result) throws InterruptedException {
+        bothStarted.countDown();
+        assertThat(bothStarted.await(1, TimeUnit.SECONDS)).as("tiles should run at the same time").isTrue();
+        return result;
+    }
+
+    private void awaitTimerCount(String tile, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            var timer = meterRegistry.find(DashboardTileService.TILE_TIMER).tag("tile", tile).timer();
+            if (timer != null && timer.count() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("tile " + tile + " never finished");
+    }
+}
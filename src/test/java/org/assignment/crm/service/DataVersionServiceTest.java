@@ -0,0 +1,80 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.event.CustomerChangedEvent;
+import org.assignment.crm.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionServiceTest {
+
+    private final DataVersionService dataVersionService = new DataVersionService();
+
+    @BeforeEach
+    void runAsTheOnlyNode() {
+        ReflectionTestUtils.setField(dataVersionService, "singleNode", true);
+    }
+
+    @Test
+    void writesBumpTheVersionAndChangeTheEtag() {
+        String before = dataVersionService.etag();
+
+        dataVersionService.onCustomerChanged(new CustomerChangedEvent(ChangeType.UPDATED, 1L));
+        dataVersionService.onUserChanged(new UserChangedEvent(ChangeType.CREATED, 2L, null));
+
+        assertThat(dataVersionService.current()).isEqualTo(2L);
+        assertThat(dataVersionService.etag()).isNotEqualTo(before).startsWith("W/\"").endsWith("-2\"");
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/dashboard");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, dataVersionService.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = dataVersionService.checkNotModified(new ServletWebRequest(request, response));
+
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(dataVersionService.etag());
+    }
+
+    @Test
+    void staleIfNoneMatchGetsTheCurrentEtag() {
+        String stale = dataVersionService.etag();
+        dataVersionService.bump();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/dashboard");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stale);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = dataVersionService.checkNotModified(new ServletWebRequest(request, response));
+
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(dataVersionService.etag());
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void withoutTheSingleNodeSettingNoEtagIsSentAndEveryPollGetsABody() {
+        ReflectionTestUtils.setField(dataVersionService, "singleNode", false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/dashboard");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, dataVersionService.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+
+        boolean notModified = dataVersionService.checkNotModified(webRequest);
+        dataVersionService.markPartial(webRequest);
+
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+}
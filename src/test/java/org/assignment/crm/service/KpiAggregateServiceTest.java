@@ -0,0 +1,164 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.entity.Customer;
+import org.assignment.crm.entity.CustomerInteraction;
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.entity.User;
+import org.assignment.crm.enums.InteractionType;
+import org.assignment.crm.repository.CustomerInteractionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+// Writes go through the real services and repositories on the seeded H2 database, so the incremental totals are
+// checked against what the tables actually hold.
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:crm_kpi_aggregates;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class KpiAggregateServiceTest {
+
+    private static final long SALES_REP_ID = 3;
+
+    @Autowired
+    private KpiAggregateService kpiAggregateService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CustomerInteractionService customerInteractionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Spring Data repositories are interface proxies, so the spy cannot call through for the stubbed count.
+    @MockitoSpyBean
+    private CustomerInteractionRepository customerInteractionRepository;
+
+    @BeforeEach
+    void startFromTheTables() {
+        kpiAggregateService.rebuild();
+    }
+
+    @Test
+    void incrementalUpdates_matchFullRecompute() {
+        Random random = new Random(42);
+        List<Long> customers = new ArrayList<>();
+        List<Long> sales = new ArrayList<>();
+        List<Long> interactions = new ArrayList<>();
+        customers.add(createCustomer());
+
+        for (int i = 0; i < 150; i++) {
+            switch (random.nextInt(6)) {
+                case 0 -> customers.add(createCustomer());
+                case 1 -> sales.add(saleService.addSale(sale(pick(customers, random), random)).getId());
+                case 2 -> {
+                    if (!sales.isEmpty()) {
+                        Sale update = new Sale();
+                        update.setAmount(randomAmount(random));
+                        saleService.updateSale(pick(sales, random), update);
+                    }
+                }
+                case 3 -> {
+                    if (!sales.isEmpty()) {
+                        saleService.deleteSale(sales.remove(random.nextInt(sales.size())));
+                    }
+                }
+                case 4 -> interactions.add(customerInteractionService.addCustomerInteraction(
+                        interaction(pick(customers, random))).getId());
+                default -> {
+                    if (!interactions.isEmpty()) {
+                        customerInteractionService.deleteCustomerInteraction(
+                                interactions.remove(random.nextInt(interactions.size())));
+                    }
+                }
+            }
+        }
+
+        KpiTotals incremental = kpiAggregateService.getTotals();
+        KpiTotals recomputed = kpiAggregateService.rebuild();
+
+        assertThat(incremental.totalCustomers()).isEqualTo(recomputed.totalCustomers());
+        assertThat(incremental.totalSales()).isEqualTo(recomputed.totalSales());
+        assertThat(incremental.totalInteractions()).isEqualTo(recomputed.totalInteractions());
+        assertThat(incremental.totalRevenue()).isEqualByComparingTo(recomputed.totalRevenue());
+    }
+
+    @Test
+    void rebuild_keepsAWriteThatCommitsAfterTheCustomerCountWasRead() {
+        long customersBefore = kpiAggregateService.getTotals().totalCustomers();
+        AtomicBoolean written = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (written.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(this::createCustomer).join();
+            }
+            return jdbcTemplate.queryForObject("select count(*) from customer_interactions", Long.class);
+        }).when(customerInteractionRepository).count();
+
+        KpiTotals rebuilt = kpiAggregateService.rebuild();
+
+        assertThat(written).isTrue();
+        assertThat(rebuilt.totalCustomers()).isEqualTo(customersBefore + 1);
+        assertThat(kpiAggregateService.getTotals().totalCustomers()).isEqualTo(customersBefore + 1);
+    }
+
+    private long createCustomer() {
+        Customer customer = new Customer();
+        customer.setFirstName("Kpi");
+        customer.setLastName("Check");
+        customer.setEmail("kpi.check." + UUID.randomUUID() + "@example.in");
+        customer.setTotalPurchaseValue(BigDecimal.ZERO);
+        return customerService.createCustomer(customer).getId();
+    }
+
+    private static Sale sale(long customerId, Random random) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        User salesRep = new User();
+        salesRep.setId(SALES_REP_ID);
+        Sale sale = new Sale();
+        sale.setAmount(randomAmount(random));
+        sale.setSaleDate(LocalDateTime.now().minusDays(random.nextInt(60)));
+        sale.setCustomer(customer);
+        sale.setSalesRep(salesRep);
+        return sale;
+    }
+
+    private static CustomerInteraction interaction(long customerId) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        User performedBy = new User();
+        performedBy.setId(SALES_REP_ID);
+        CustomerInteraction interaction = new CustomerInteraction();
+        interaction.setType(InteractionType.CALL);
+        interaction.setCustomer(customer);
+        interaction.setPerformedBy(performedBy);
+        return interaction;
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.exception.ManagerCycleDetected;
+import org.assignment.crm.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Two opposite manager assignments on the seeded admin and manager. The first is held open before commit, so the
+// second has to find it through the table rather than the hierarchy index, which only learns of it after commit.
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:crm_manager_cycle;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ManagerCycleConcurrencyTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void oppositeAssignmentWaitsForTheFirstAndIsRejected() throws Exception {
+        long adminId = userRepository.findUserByUserName("admin_test").orElseThrow().getId();
+        long managerId = userRepository.findUserByUserName("manager_test").orElseThrow().getId();
+        CountDownLatch assigned = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    userService.setManager(managerId, adminId);
+                    assigned.countDown();
+                    await(commit);
+                }));
+        assertThat(assigned.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> userService.setManager(adminId, managerId));
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+
+        commit.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ManagerCycleDetected.class);
+        assertThat(userRepository.findById(managerId).orElseThrow().getManager().getId()).isEqualTo(adminId);
+        assertThat(userRepository.findById(adminId).orElseThrow().getManager()).isNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
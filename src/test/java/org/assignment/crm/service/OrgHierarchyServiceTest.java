@@ -0,0 +1,83 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.UserManagerRow;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.event.UserChangedEvent;
+import org.assignment.crm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrgHierarchyServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private OrgHierarchyService orgHierarchyService;
+
+    // 1 -> 2 -> {4, 5}, 1 -> 3 -> 6 -> 7, 8 on its own
+    @BeforeEach
+    void loadTree() {
+        List<UserManagerRow> rows = List.of(
+                link(1L, null), link(2L, 1L), link(3L, 1L), link(4L, 2L),
+                link(5L, 2L), link(6L, 3L), link(7L, 6L), link(8L, null));
+        when(userRepository.findAllManagerLinks()).thenReturn(rows);
+        orgHierarchyService.rebuild();
+    }
+
+    @Test
+    void subordinatesCoverEveryLevelWithOneLoad() {
+        assertThat(orgHierarchyService.getSubordinateIds(1L)).containsExactlyInAnyOrder(2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(orgHierarchyService.getSubordinateIds(3L)).containsExactlyInAnyOrder(6L, 7L);
+        assertThat(orgHierarchyService.getSubordinateIds(7L)).isEmpty();
+        assertThat(orgHierarchyService.getDirectReportIds(1L)).containsExactlyInAnyOrder(2L, 3L);
+        verify(userRepository, times(1)).findAllManagerLinks();
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void isUnderFollowsTheManagerChain() {
+        assertThat(orgHierarchyService.isUnder(7L, 1L)).isTrue();
+        assertThat(orgHierarchyService.isUnder(7L, 3L)).isTrue();
+        assertThat(orgHierarchyService.isUnder(4L, 3L)).isFalse();
+        assertThat(orgHierarchyService.isUnder(1L, 7L)).isFalse();
+        assertThat(orgHierarchyService.isUnder(8L, 1L)).isFalse();
+    }
+
+    @Test
+    void committedManagerChangesMoveTheWholeSubtree() {
+        orgHierarchyService.onUserChanged(new UserChangedEvent(ChangeType.UPDATED, 3L, 2L));
+        orgHierarchyService.onUserChanged(new UserChangedEvent(ChangeType.CREATED, 9L, 8L));
+
+        assertThat(orgHierarchyService.getSubordinateIds(2L)).containsExactlyInAnyOrder(3L, 4L, 5L, 6L, 7L);
+        assertThat(orgHierarchyService.getDirectReportIds(1L)).containsExactly(2L);
+        assertThat(orgHierarchyService.isUnder(7L, 2L)).isTrue();
+        assertThat(orgHierarchyService.getSubordinateIds(8L)).containsExactly(9L);
+    }
+
+    @Test
+    void deletedManagersLeaveTheirReportsAtTheTop() {
+        orgHierarchyService.onUserChanged(new UserChangedEvent(ChangeType.DELETED, 3L, null));
+
+        assertThat(orgHierarchyService.getSubordinateIds(1L)).containsExactlyInAnyOrder(2L, 4L, 5L);
+        assertThat(orgHierarchyService.getSubordinateIds(6L)).containsExactly(7L);
+        assertThat(orgHierarchyService.isUnder(6L, 1L)).isFalse();
+    }
+
+    private static UserManagerRow link(Long id, Long managerId) {
+        UserManagerRow row = mock(UserManagerRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getManagerId()).thenReturn(managerId);
+        return row;
+    }
+}
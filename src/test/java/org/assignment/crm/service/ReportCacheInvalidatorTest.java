@@ -0,0 +1,93 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.enums.ChangeType;
+import org.assignment.crm.enums.InteractionType;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.CustomerChangedEvent;
+import org.assignment.crm.event.InteractionChangedEvent;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ReportCacheInvalidatorTest {
+
+    @Spy
+    private CacheManager cacheManager = new CaffeineCacheManager(
+            CacheConfiguration.DASHBOARD_REPORT,
+            CacheConfiguration.CUSTOMER_ACTIVITY_REPORTS,
+            CacheConfiguration.SALES_TRENDS_REPORTS);
+
+    @InjectMocks
+    private ReportCacheInvalidator reportCacheInvalidator;
+
+    private Cache dashboard;
+    private Cache activity;
+    private Cache trends;
+
+    @BeforeEach
+    void fillCaches() {
+        dashboard = cacheManager.getCache(CacheConfiguration.DASHBOARD_REPORT);
+        activity = cacheManager.getCache(CacheConfiguration.CUSTOMER_ACTIVITY_REPORTS);
+        trends = cacheManager.getCache(CacheConfiguration.SALES_TRENDS_REPORTS);
+        dashboard.put(SimpleKey.EMPTY, Map.of());
+        activity.put(1L, Map.of());
+        activity.put(2L, Map.of());
+        activity.put(3L, Map.of());
+        trends.put(new SimpleKey(null, null, "MONTH"), Map.of());
+    }
+
+    @Test
+    void onSaleChanged_evictsPreviousAndCurrentCustomerAndAggregateReports() {
+        reportCacheInvalidator.onSaleChanged(SaleChangedEvent.updated(sale(1L), sale(2L)));
+
+        assertThat(activity.get(1L)).isNull();
+        assertThat(activity.get(2L)).isNull();
+        assertThat(activity.get(3L)).isNotNull();
+        assertThat(dashboard.get(SimpleKey.EMPTY)).isNull();
+        assertThat(trends.get(new SimpleKey(null, null, "MONTH"))).isNull();
+    }
+
+    @Test
+    void onInteractionChanged_evictsOnlyAffectedCustomersAndDashboard() {
+        reportCacheInvalidator.onInteractionChanged(new InteractionChangedEvent(
+                ChangeType.UPDATED, 10L, 2L, 3L, 7L, InteractionType.CALL, LocalDateTime.now()));
+
+        assertThat(activity.get(1L)).isNotNull();
+        assertThat(activity.get(2L)).isNull();
+        assertThat(activity.get(3L)).isNull();
+        assertThat(dashboard.get(SimpleKey.EMPTY)).isNull();
+        assertThat(trends.get(new SimpleKey(null, null, "MONTH"))).isNotNull();
+    }
+
+    @Test
+    void onCustomerChanged_evictsThatCustomersActivityReport() {
+        reportCacheInvalidator.onCustomerChanged(new CustomerChangedEvent(ChangeType.DELETED, 3L));
+
+        assertThat(activity.get(3L)).isNull();
+        assertThat(activity.get(1L)).isNotNull();
+        assertThat(trends.get(new SimpleKey(null, null, "MONTH"))).isNotNull();
+    }
+
+    private SaleSnapshot sale(Long customerId) {
+        return new SaleSnapshot(1L, customerId, 5L, BigDecimal.TEN,
+                LocalDate.of(2025, 1, 1).atStartOfDay(), SaleStatus.COMPLETED);
+    }
+}
@@ -0,0 +1,54 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.config.CacheConfiguration;
+import org.assignment.crm.enums.RollupGranularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A report computed from data read before a write can finish after the write's eviction and put its result back.
+// Stands in for that by storing a stale result under the pre-write key, then bumping the version as a commit does.
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:crm_report_cache_version;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ReportCacheVersionTest {
+
+    private static final Map<String, Object> STALE = Map.of("stale", true);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void dashboardReportPutBackUnderAnOlderVersionIsNotServed() {
+        Cache cache = cacheManager.getCache(CacheConfiguration.DASHBOARD_REPORT);
+        cache.put(dataVersionService.current(), STALE);
+        assertThat(reportService.getDashboardReport()).isSameAs(STALE);
+
+        dataVersionService.bump();
+
+        assertThat(reportService.getDashboardReport()).isNotEqualTo(STALE).containsKey("totalSales");
+    }
+
+    @Test
+    void salesTrendsPutBackUnderAnOlderVersionIsNotServed() {
+        Cache cache = cacheManager.getCache(CacheConfiguration.SALES_TRENDS_REPORTS);
+        cache.put("MONTH:null:null@" + dataVersionService.current(), STALE);
+        assertThat(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).isSameAs(STALE);
+
+        dataVersionService.bump();
+
+        assertThat(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH))
+                .isNotEqualTo(STALE).containsKey("salesByPeriod");
+    }
+}
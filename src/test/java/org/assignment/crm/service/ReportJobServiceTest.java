@@ -0,0 +1,165 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.ReportJobRequest;
+import org.assignment.crm.dto.ReportJobView;
+import org.assignment.crm.enums.ReportJobStatus;
+import org.assignment.crm.enums.ReportJobType;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.exception.CustomerNotFound;
+import org.assignment.crm.exception.InvalidReportJobRequest;
+import org.assignment.crm.exception.ReportJobLimitExceeded;
+import org.assignment.crm.exception.ReportJobNotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportService reportService;
+
+    @InjectMocks
+    private ReportJobService reportJobService;
+
+    private ThreadPoolTaskExecutor reportJobExecutor;
+
+    @BeforeEach
+    void setUpExecutor() {
+        reportJobExecutor = new ThreadPoolTaskExecutor();
+        reportJobExecutor.setCorePoolSize(2);
+        reportJobExecutor.setMaxPoolSize(2);
+        reportJobExecutor.setQueueCapacity(10);
+        reportJobExecutor.initialize();
+        ReflectionTestUtils.setField(reportJobService, "reportJobExecutor", reportJobExecutor);
+    }
+
+    @AfterEach
+    void shutDownExecutor() {
+        reportJobExecutor.shutdown();
+    }
+
+    @Test
+    void submit_runsTrendsReportInBackgroundAndExposesResult() throws Exception {
+        when(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).thenReturn(Map.of("totalSales", 4L));
+
+        ReportJobView queued = reportJobService.submit("alice", trendsRequest());
+        ReportJobView finished = awaitFinished("alice", queued.id());
+
+        assertThat(finished.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(finished.result()).containsEntry("totalSales", 4L);
+        assertThat(finished.expiresAt()).isAfter(finished.finishedAt());
+    }
+
+    @Test
+    void submit_recordsFailureMessage() throws Exception {
+        when(reportService.getCustomerActivityReport(9L)).thenThrow(new CustomerNotFound("Customer not found with this id"));
+
+        ReportJobView queued = reportJobService.submit("alice",
+                new ReportJobRequest(ReportJobType.CUSTOMER_ACTIVITY, 9L, null, null, null));
+        ReportJobView finished = awaitFinished("alice", queued.id());
+
+        assertThat(finished.status()).isEqualTo(ReportJobStatus.FAILED);
+        assertThat(finished.error()).isEqualTo("Customer not found with this id");
+    }
+
+    @Test
+    void submit_rejectsActivityJobWithoutCustomer() {
+        assertThatThrownBy(() -> reportJobService.submit("alice",
+                new ReportJobRequest(ReportJobType.CUSTOMER_ACTIVITY, null, null, null, null)))
+                .isInstanceOf(InvalidReportJobRequest.class);
+    }
+
+    @Test
+    void submit_enforcesPerUserActiveJobLimit() throws Exception {
+        ReflectionTestUtils.setField(reportJobService, "maxActiveJobsPerUser", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        ReportJobView first = reportJobService.submit("alice", trendsRequest());
+
+        assertThatThrownBy(() -> reportJobService.submit("alice", trendsRequest()))
+                .isInstanceOf(ReportJobLimitExceeded.class);
+        assertThat(reportJobService.submit("bob", trendsRequest()).status()).isEqualTo(ReportJobStatus.QUEUED);
+
+        release.countDown();
+        awaitFinished("alice", first.id());
+        assertThat(reportJobService.submit("alice", trendsRequest())).isNotNull();
+    }
+
+    @Test
+    void cancel_stopsRunningJobAndKeepsItCancelled() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).thenAnswer(inv -> {
+            started.countDown();
+            Thread.sleep(5_000);
+            return Map.of();
+        });
+
+        ReportJobView queued = reportJobService.submit("alice", trendsRequest());
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+        ReportJobView cancelled = reportJobService.cancel("alice", queued.id());
+
+        assertThat(cancelled.status()).isEqualTo(ReportJobStatus.CANCELLED);
+        Thread.sleep(100);
+        assertThat(reportJobService.getJob("alice", queued.id()).status()).isEqualTo(ReportJobStatus.CANCELLED);
+    }
+
+    @Test
+    void getJob_hidesOtherUsersJobs() throws Exception {
+        when(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).thenReturn(Map.of());
+        ReportJobView queued = reportJobService.submit("alice", trendsRequest());
+        awaitFinished("alice", queued.id());
+
+        assertThatThrownBy(() -> reportJobService.getJob("bob", queued.id()))
+                .isInstanceOf(ReportJobNotFound.class);
+    }
+
+    @Test
+    void purgeExpiredJobs_dropsResultsOlderThanTtl() throws Exception {
+        ReflectionTestUtils.setField(reportJobService, "resultTtl", Duration.ofMillis(100));
+        when(reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH)).thenReturn(Map.of());
+        ReportJobView queued = reportJobService.submit("alice", trendsRequest());
+        awaitFinished("alice", queued.id());
+        Thread.sleep(150);
+
+        reportJobService.purgeExpiredJobs();
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(reportJobService, "jobs")).isEmpty();
+        assertThatThrownBy(() -> reportJobService.getJob("alice", queued.id()))
+                .isInstanceOf(ReportJobNotFound.class);
+    }
+
+    private ReportJobRequest trendsRequest() {
+        return new ReportJobRequest(ReportJobType.SALES_TRENDS, null, null, null, null);
+    }
+
+    private ReportJobView awaitFinished(String owner, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReportJobView job = reportJobService.getJob(owner, jobId);
+        while (job.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = reportJobService.getJob(owner, jobId);
+        }
+        return job;
+    }
+}
@@ -1,24 +1,49 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.InteractionSummary;
+import org.assignment.crm.dto.KpiTotals;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.SalesTrendRow;
 import org.assignment.crm.entity.Customer;
-import org.assignment.crm.entity.CustomerInteraction;
-import org.assignment.crm.entity.Sale;
 import org.assignment.crm.enums.InteractionType;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.exception.CustomerNotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
 class ReportServiceTest {
 
     @Mock
@@ -30,29 +55,56 @@ class ReportServiceTest {
     @Mock
     private CustomerInteractionService interactionService;
 
+    @Mock
+    private KpiAggregateService kpiAggregateService;
+
+    @Mock
+    private SalesTrendSource salesTrendSource;
+
+    @Mock
+    private SalesSnapshotService salesSnapshotService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ReportService reportService;
 
-    @Test
-    void getDashboardReport_aggregatesCountsAndRevenue() {
-        Customer c1 = new Customer();
-        Customer c2 = new Customer();
-        when(customerService.findAll()).thenReturn(List.of(c1, c2));
+    private ExecutorService reportExecutor;
 
-        Sale s1 = new Sale(); s1.setAmount(new BigDecimal("10")); s1.setUpdatedAt(LocalDateTime.now()); s1.setSaleDate(LocalDateTime.now());
-        Sale s2 = new Sale(); s2.setAmount(new BigDecimal("20")); s2.setUpdatedAt(LocalDateTime.now()); s2.setSaleDate(LocalDateTime.now());
-        when(saleService.getAllSales()).thenReturn(List.of(s1, s2));
+    @BeforeEach
+    void setUpExecutor() {
+        reportExecutor = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(reportService, "reportExecutor", reportExecutor);
+    }
+
+    @AfterEach
+    void shutDownExecutor() {
+        reportExecutor.shutdownNow();
+    }
+
+    private static <T> T delayed(long millis, T value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+
+    @Test
+    void getDashboardReport_readsTotalsFromKpiAggregates() {
+        when(kpiAggregateService.getTotals()).thenReturn(new KpiTotals(2, 2, 3, new BigDecimal("30")));
 
-        CustomerInteraction i1 = new CustomerInteraction(); i1.setType(InteractionType.EMAIL);
-        CustomerInteraction i2 = new CustomerInteraction(); i2.setType(InteractionType.CALL);
-        CustomerInteraction i3 = new CustomerInteraction(); i3.setType(InteractionType.MEETING);
-        when(interactionService.getAllCustomerInteractions()).thenReturn(List.of(i1, i2, i3));
+        SaleSummary s1 = sale(1L, "10", LocalDateTime.now());
+        when(saleService.getRecentSales(5)).thenReturn(List.of(s1));
 
         Map<String, Object> dashboard = reportService.getDashboardReport();
-        assertThat(dashboard.get("totalCustomers")).isEqualTo(2);
-        assertThat(dashboard.get("totalSales")).isEqualTo(2);
-        assertThat(dashboard.get("totalInteractions")).isEqualTo(3);
+        assertThat(dashboard.get("totalCustomers")).isEqualTo(2L);
+        assertThat(dashboard.get("totalSales")).isEqualTo(2L);
+        assertThat(dashboard.get("totalInteractions")).isEqualTo(3L);
         assertThat(dashboard.get("totalRevenue")).isEqualTo(new BigDecimal("30"));
+        assertThat(dashboard.get("averageSaleValue")).isEqualTo(new BigDecimal("15.00"));
+        assertThat(dashboard.get("recentSales")).isEqualTo(List.of(s1));
+        verify(customerService, never()).findAll(any());
+        verify(saleService, never()).getAllSales(any());
+        verify(interactionService, never()).getAllCustomerInteractions(any());
     }
 
     @Test
@@ -61,16 +113,170 @@ class ReportServiceTest {
         customer.setId(5L);
         when(customerService.findById(5L)).thenReturn(java.util.Optional.of(customer));
 
-        Sale s1 = new Sale(); s1.setAmount(new BigDecimal("100")); s1.setUpdatedAt(LocalDateTime.now()); s1.setSaleDate(LocalDateTime.now());
-        when(saleService.getSaleByCustomerId(5L)).thenReturn(List.of(s1));
+        SaleSummary s1 = sale(1L, "100", LocalDateTime.now());
+        when(saleService.findSalesByCustomerId(5L)).thenReturn(List.of(s1));
 
-        CustomerInteraction int1 = new CustomerInteraction(); int1.setType(InteractionType.EMAIL);
-        when(interactionService.getInteractionsByCustomerId(5L)).thenReturn(List.of(int1));
+        InteractionSummary int1 = new InteractionSummary(1L, InteractionType.EMAIL, LocalDateTime.now(), null, 5L, "Ada Lovelace", 3L, "Sam Rep");
+        when(interactionService.findInteractionsByCustomerId(5L)).thenReturn(List.of(int1));
 
         Map<String, Object> report = reportService.getCustomerActivityReport(5L);
         assertThat(report.get("customer")).isEqualTo(customer);
         assertThat(report.get("totalSales")).isEqualTo(1);
         assertThat(report.get("totalRevenue")).isEqualTo(new BigDecimal("100"));
         assertThat(report.get("totalInteractions")).isEqualTo(1);
+        assertThat(report.get("partial")).isEqualTo(false);
+        verify(saleService, never()).getSaleByCustomerId(anyLong(), any());
+        verify(interactionService, never()).getInteractionsByCustomerId(anyLong(), any());
+    }
+
+    @Test
+    void getCustomerActivityReport_throwsCustomerNotFoundForUnknownCustomer() {
+        when(customerService.findById(9L)).thenReturn(Optional.empty());
+        lenient().when(saleService.findSalesByCustomerId(9L)).thenReturn(List.of());
+        lenient().when(interactionService.findInteractionsByCustomerId(9L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> reportService.getCustomerActivityReport(9L))
+                .isInstanceOf(CustomerNotFound.class);
+    }
+
+    @Test
+    void getCustomerActivityReport_runsSubQueriesConcurrently() {
+        long latencyMillis = 300;
+        Customer customer = new Customer();
+        customer.setId(5L);
+        when(customerService.findById(5L)).thenAnswer(inv -> delayed(latencyMillis, Optional.of(customer)));
+        when(saleService.findSalesByCustomerId(5L)).thenAnswer(inv -> delayed(latencyMillis, List.of()));
+        when(interactionService.findInteractionsByCustomerId(5L)).thenAnswer(inv -> delayed(latencyMillis, List.of()));
+
+        long started = System.nanoTime();
+        Map<String, Object> report = reportService.getCustomerActivityReport(5L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(report.get("partial")).isEqualTo(false);
+        assertThat(elapsedMillis)
+                .as("three %dms sub-queries should overlap instead of running back to back", latencyMillis)
+                .isLessThan(latencyMillis * 2);
+    }
+
+    @Test
+    void getCustomerActivityReport_returnsPartialReportWhenSectionExceedsBudget() {
+        ReflectionTestUtils.setField(reportService, "activityReportTimeout", Duration.ofMillis(200));
+        Customer customer = new Customer();
+        customer.setId(5L);
+        when(customerService.findById(5L)).thenReturn(Optional.of(customer));
+        SaleSummary sale = sale(2L, "40", LocalDateTime.now());
+        when(saleService.findSalesByCustomerId(5L)).thenReturn(List.of(sale));
+        when(interactionService.findInteractionsByCustomerId(5L)).thenAnswer(inv -> delayed(2_000, List.of()));
+
+        long started = System.nanoTime();
+        Map<String, Object> report = reportService.getCustomerActivityReport(5L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(report.get("partial")).isEqualTo(true);
+        assertThat(report.get("missingSections")).isEqualTo(List.of("interactions"));
+        assertThat(report.get("totalRevenue")).isEqualTo(new BigDecimal("40"));
+        assertThat(report).doesNotContainKeys("totalInteractions", "customerValue");
+        assertThat(elapsedMillis).isLessThan(1_000);
+    }
+
+    @Test
+    void getCustomerActivityReport_reportsSectionsRejectedBySaturatedExecutorAsMissing() {
+        reportExecutor.shutdownNow();
+        reportExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ReflectionTestUtils.setField(reportService, "reportExecutor", reportExecutor);
+        Customer customer = new Customer();
+        customer.setId(5L);
+        when(customerService.findById(5L)).thenAnswer(inv -> delayed(200, Optional.of(customer)));
+
+        Map<String, Object> report = reportService.getCustomerActivityReport(5L);
+
+        assertThat(report.get("partial")).isEqualTo(true);
+        assertThat(report.get("missingSections")).isEqualTo(List.of("sales", "interactions"));
+        assertThat(report.get("customer")).isSameAs(customer);
+        verifyNoInteractions(saleService, interactionService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 100_000})
+    void getDashboardReport_activeCustomerQueryCountIsIndependentOfCustomerCount(int customerCount) {
+        when(kpiAggregateService.getTotals()).thenReturn(new KpiTotals(customerCount, 0, 0, BigDecimal.ZERO));
+        when(saleService.getRecentSales(5)).thenReturn(List.of());
+        when(saleService.countCustomersWithSalesSince(any(LocalDateTime.class))).thenReturn(7L);
+
+        Map<String, Object> dashboard = reportService.getDashboardReport();
+
+        assertThat(dashboard.get("totalCustomers")).isEqualTo((long) customerCount);
+        assertThat(dashboard.get("activeCustomers")).isEqualTo(7L);
+        verify(saleService, times(1)).countCustomersWithSalesSince(any(LocalDateTime.class));
+        verify(saleService, never()).getSaleByCustomerId(anyLong(), any());
+        assertThat(mockingDetails(saleService).getInvocations()).hasSize(2);
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    void getSalesTrendsReport_usesColumnarSnapshotWhenLoaded() {
+        SalesTrendRow feb = trendRow(LocalDate.of(2025, 2, 1), SaleStatus.COMPLETED, 3L, "45");
+        SaleSummary top = sale(8L, "30", null);
+        when(salesTrendSource.isSnapshot()).thenReturn(true);
+        when(salesTrendSource.streamTrend(RollupGranularity.MONTH, null, null)).thenReturn(Stream.of(feb));
+        when(salesSnapshotService.getTopSaleIds(10, null, null)).thenReturn(List.of(8L));
+        when(saleService.getSalesByIds(List.of(8L))).thenReturn(List.of(top));
+
+        Map<String, Object> trends = reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH);
+
+        assertThat(trends.get("totalSales")).isEqualTo(3L);
+        assertThat((Map<String, Long>) trends.get("salesByPeriod")).containsExactly(Map.entry("2025-02", 3L));
+        assertThat(trends.get("topPerformingSales")).isEqualTo(List.of(top));
+        verify(saleService, never()).getTopSales(anyInt(), any(), any());
+    }
+
+    @Test
+    void getSalesTrendsReport_bucketsByYearAndMonthFromRollups() {
+        SalesTrendRow jan2024 = trendRow(LocalDate.of(2024, 1, 1), SaleStatus.COMPLETED, 2L, "30");
+        SalesTrendRow jan2025 = trendRow(LocalDate.of(2025, 1, 1), SaleStatus.COMPLETED, 4L, "70");
+        SalesTrendRow jan2025Pending = trendRow(LocalDate.of(2025, 1, 1), SaleStatus.PENDING, 1L, "5");
+        when(salesTrendSource.streamTrend(RollupGranularity.MONTH, null, null))
+                .thenReturn(Stream.of(jan2024, jan2025, jan2025Pending));
+        when(saleService.getTopSales(10, null, null)).thenReturn(List.of());
+
+        Map<String, Object> trends = reportService.getSalesTrendsReport(null, null, RollupGranularity.MONTH);
+
+        assertThat(trends.get("totalSales")).isEqualTo(7L);
+        assertThat((BigDecimal) trends.get("totalRevenue")).isEqualByComparingTo("105");
+        assertThat((Map<String, Long>) trends.get("salesByPeriod"))
+                .containsExactly(Map.entry("2024-01", 2L), Map.entry("2025-01", 5L));
+        assertThat((Map<String, Long>) trends.get("salesByStatus"))
+                .containsEntry("COMPLETED", 6L)
+                .containsEntry("PENDING", 1L);
+        verify(saleService, never()).getAllSales(any());
+    }
+
+    @Test
+    void getSalesTrendsReport_asksDatabaseForTopSalesWithinRange() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(salesTrendSource.streamTrend(RollupGranularity.DAY, from, to)).thenReturn(Stream.empty());
+        SaleSummary top = sale(9L, "999", null);
+        when(saleService.getTopSales(10, from.atStartOfDay(), LocalDate.of(2025, 2, 1).atStartOfDay()))
+                .thenReturn(List.of(top));
+
+        Map<String, Object> trends = reportService.getSalesTrendsReport(from, to, RollupGranularity.DAY);
+
+        assertThat(trends.get("topPerformingSales")).isEqualTo(List.of(top));
+        verify(saleService, never()).getAllSales(any());
+    }
+
+    private static SaleSummary sale(long id, String amount, LocalDateTime saleDate) {
+        return new SaleSummary(id, new BigDecimal(amount), saleDate, SaleStatus.COMPLETED, null, 5L, "Ada Lovelace", 3L, "Sam Rep");
+    }
+
+    private SalesTrendRow trendRow(LocalDate periodStart, SaleStatus status, long count, String revenue) {
+        SalesTrendRow row = mock(SalesTrendRow.class);
+        when(row.getPeriodStart()).thenReturn(periodStart);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getSaleCount()).thenReturn(count);
+        when(row.getRevenue()).thenReturn(new BigDecimal(revenue));
+        return row;
     }
 }
@@ -0,0 +1,83 @@
+package org.assignment.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.assignment.crm.dto.SaleSummary;
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleExportServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SalesTrendSource salesTrendSource;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private SaleExportService saleExportService;
+
+    @Test
+    void writeSalesAsNdjson_writesOneSummaryLinePerSale() {
+        int rows = SaleRepository.STREAM_FETCH_SIZE * 2 + 250;
+        when(saleRepository.streamAllSummaries()).thenReturn(LongStream.rangeClosed(1, rows).mapToObj(this::sale));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = saleExportService.writeSalesAsNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(rows);
+        assertThat(lines).hasSize(rows);
+        assertThat(lines[0]).isEqualTo("{\"id\":1,\"amount\":10,\"saleDate\":\"2025-01-01T12:00:00\"," +
+                "\"status\":\"COMPLETED\",\"description\":null,\"customerId\":2,\"customerName\":\"Rajesh Kumar\"," +
+                "\"salesRepId\":3,\"salesRepName\":\"Sales Demo\"}");
+    }
+
+    @Test
+    void writeSalesTrendAsNdjson_streamsRowsFromTheSharedTrendSource() {
+        SalesTrendRow row = mock(SalesTrendRow.class);
+        when(row.getPeriodStart()).thenReturn(LocalDate.of(2025, 1, 1));
+        when(row.getStatus()).thenReturn(SaleStatus.COMPLETED);
+        when(row.getSaleCount()).thenReturn(3L);
+        when(row.getRevenue()).thenReturn(new BigDecimal("45.00"));
+        when(salesTrendSource.streamTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 20), null))
+                .thenReturn(Stream.of(row, row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = saleExportService.writeSalesTrendAsNdjson(RollupGranularity.MONTH, LocalDate.of(2025, 1, 20), null, out);
+
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith(
+                "{\"periodStart\":\"2025-01-01\",\"status\":\"COMPLETED\",\"saleCount\":3,\"revenue\":45.00}\n");
+    }
+
+    private SaleSummary sale(long id) {
+        return new SaleSummary(id, BigDecimal.TEN, LocalDateTime.of(2025, 1, 1, 12, 0), SaleStatus.COMPLETED, null,
+                2L, "Rajesh Kumar", 3L, "Sales Demo");
+    }
+}
@@ -0,0 +1,86 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.entity.Customer;
+import org.assignment.crm.entity.Sale;
+import org.assignment.crm.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counts the rollup upserts Hibernate actually sends for one bulk insert on the seeded H2 database.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:crm_rollup_bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.region_prefix=crm_rollup_bulk",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "org.assignment.crm.service.SaleRollupBulkInsertTest$RollupUpsertCounter"
+})
+class SaleRollupBulkInsertTest {
+
+    private static final long SALES_REP_ID = 3;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bulkInsert_writesOneUpsertPerRollupBucket() {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sales.add(sale(LocalDateTime.of(2023, 3, 10 + i % 2, 9, i)));
+        }
+        RollupUpsertCounter.UPSERTS.set(0);
+
+        saleService.addSales(sales);
+
+        // Two DAY buckets and the MONTH bucket they share.
+        assertThat(RollupUpsertCounter.UPSERTS.get()).isEqualTo(3);
+        assertThat(rollupCount("DAY", LocalDate.of(2023, 3, 10))).isEqualTo(20);
+        assertThat(rollupCount("DAY", LocalDate.of(2023, 3, 11))).isEqualTo(20);
+        assertThat(rollupCount("MONTH", LocalDate.of(2023, 3, 1))).isEqualTo(40);
+    }
+
+    private long rollupCount(String granularity, LocalDate periodStart) {
+        return jdbcTemplate.queryForObject("select sale_count from sale_rollups where granularity = ? " +
+                        "and period_start = ? and status = 'COMPLETED' and sales_rep_id = ?",
+                Long.class, granularity, periodStart, SALES_REP_ID);
+    }
+
+    private static Sale sale(LocalDateTime saleDate) {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        User salesRep = new User();
+        salesRep.setId(SALES_REP_ID);
+        Sale sale = new Sale();
+        sale.setAmount(new BigDecimal("25.00"));
+        sale.setSaleDate(saleDate);
+        sale.setCustomer(customer);
+        sale.setSalesRep(salesRep);
+        return sale;
+    }
+
+    public static class RollupUpsertCounter implements StatementInspector {
+
+        static final AtomicInteger UPSERTS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("insert into sale_rollups")) {
+                UPSERTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.DailySalesRow;
+import org.assignment.crm.entity.SaleRollup;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.repository.SaleRepository;
+import org.assignment.crm.repository.SaleRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleRollupServiceTest {
+
+    @Mock
+    private SaleRollupRepository saleRollupRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @InjectMocks
+    private SaleRollupService saleRollupService;
+
+    @Test
+    void onSaleCreated_incrementsDailyAndMonthlyBuckets() {
+        SaleSnapshot sale = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("100.00"),
+                LocalDateTime.of(2025, 1, 15, 10, 30), SaleStatus.COMPLETED);
+
+        saleRollupService.onSaleChanged(SaleChangedEvent.created(sale));
+
+        verify(saleRollupRepository).upsertIncrement("DAY", LocalDate.of(2025, 1, 15), "COMPLETED", 3L,
+                2025, 1, 1, new BigDecimal("100.00"));
+        verify(saleRollupRepository).upsertIncrement("MONTH", LocalDate.of(2025, 1, 1), "COMPLETED", 3L,
+                2025, 1, 1, new BigDecimal("100.00"));
+    }
+
+    @Test
+    void onSaleUpdated_movesAmountBetweenBuckets() {
+        SaleSnapshot previous = new SaleSnapshot(1L, 2L, null, new BigDecimal("50"),
+                LocalDateTime.of(2024, 1, 31, 9, 0), SaleStatus.PENDING);
+        SaleSnapshot current = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("80"),
+                LocalDateTime.of(2025, 1, 31, 9, 0), SaleStatus.COMPLETED);
+
+        saleRollupService.onSaleChanged(SaleChangedEvent.updated(previous, current));
+
+        verify(saleRollupRepository).upsertIncrement("MONTH", LocalDate.of(2024, 1, 1), "PENDING",
+                SaleRollup.UNASSIGNED_REP, 2024, 1, -1, new BigDecimal("-50"));
+        verify(saleRollupRepository).upsertIncrement("MONTH", LocalDate.of(2025, 1, 1), "COMPLETED", 3L,
+                2025, 1, 1, new BigDecimal("80"));
+        verify(saleRollupRepository, times(4)).upsertIncrement(anyString(), any(), anyString(), anyLong(),
+                anyInt(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void onSaleUpdated_withoutRollupChange_writesNothing() {
+        SaleSnapshot previous = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("80.00"),
+                LocalDateTime.of(2025, 1, 31, 9, 0), SaleStatus.COMPLETED);
+        SaleSnapshot current = new SaleSnapshot(1L, 4L, 3L, new BigDecimal("80.0"),
+                LocalDateTime.of(2025, 1, 31, 17, 0), SaleStatus.COMPLETED);
+
+        saleRollupService.onSaleChanged(SaleChangedEvent.updated(previous, current));
+
+        verifyNoInteractions(saleRollupRepository);
+    }
+
+    @Test
+    void onSaleUpdated_amountOnly_adjustsRevenueInPlace() {
+        SaleSnapshot previous = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("80"),
+                LocalDateTime.of(2025, 1, 31, 9, 0), SaleStatus.COMPLETED);
+        SaleSnapshot current = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("95"),
+                LocalDateTime.of(2025, 1, 31, 9, 0), SaleStatus.COMPLETED);
+
+        saleRollupService.onSaleChanged(SaleChangedEvent.updated(previous, current));
+
+        verify(saleRollupRepository).upsertIncrement("DAY", LocalDate.of(2025, 1, 31), "COMPLETED", 3L,
+                2025, 1, 0, new BigDecimal("15"));
+        verify(saleRollupRepository).upsertIncrement("MONTH", LocalDate.of(2025, 1, 1), "COMPLETED", 3L,
+                2025, 1, 0, new BigDecimal("15"));
+        verifyNoMoreInteractions(saleRollupRepository);
+    }
+
+    @Test
+    void onSaleDeleted_prunesBucketsLeftEmpty() {
+        SaleSnapshot sale = new SaleSnapshot(1L, 2L, 3L, new BigDecimal("100.00"),
+                LocalDateTime.of(2025, 1, 15, 10, 30), SaleStatus.COMPLETED);
+
+        saleRollupService.onSaleChanged(SaleChangedEvent.deleted(sale));
+
+        verify(saleRollupRepository).upsertIncrement("DAY", LocalDate.of(2025, 1, 15), "COMPLETED", 3L,
+                2025, 1, -1, new BigDecimal("-100.00"));
+        verify(saleRollupRepository).deleteEmpty(RollupGranularity.DAY, LocalDate.of(2025, 1, 15), SaleStatus.COMPLETED, 3L);
+        verify(saleRollupRepository).deleteEmpty(RollupGranularity.MONTH, LocalDate.of(2025, 1, 1), SaleStatus.COMPLETED, 3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_keepsSameMonthOfDifferentYearsApart() {
+        DailySalesRow jan2024 = row(LocalDate.of(2024, 1, 10), 2L, "30");
+        DailySalesRow jan2025a = row(LocalDate.of(2025, 1, 5), 1L, "10");
+        DailySalesRow jan2025b = row(LocalDate.of(2025, 1, 20), 3L, "60");
+        when(saleRepository.aggregateByDayStatusAndRep()).thenReturn(List.of(jan2024, jan2025a, jan2025b));
+
+        int rows = saleRollupService.rebuild();
+
+        ArgumentCaptor<List<SaleRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(saleRollupRepository).deleteAllRollups();
+        verify(saleRollupRepository).saveAll(captor.capture());
+        List<SaleRollup> monthly = captor.getValue().stream()
+                .filter(r -> r.getGranularity() == RollupGranularity.MONTH)
+                .toList();
+
+        assertThat(rows).isEqualTo(5);
+        assertThat(monthly).hasSize(2);
+        assertThat(monthly).anySatisfy(r -> {
+            assertThat(r.getPeriodStart()).isEqualTo(LocalDate.of(2024, 1, 1));
+            assertThat(r.getSaleCount()).isEqualTo(2L);
+        });
+        assertThat(monthly).anySatisfy(r -> {
+            assertThat(r.getPeriodStart()).isEqualTo(LocalDate.of(2025, 1, 1));
+            assertThat(r.getPeriodYear()).isEqualTo(2025);
+            assertThat(r.getSaleCount()).isEqualTo(4L);
+            assertThat(r.getRevenue()).isEqualByComparingTo("70");
+        });
+    }
+
+    private DailySalesRow row(LocalDate day, long count, String revenue) {
+        DailySalesRow row = mock(DailySalesRow.class);
+        when(row.getSaleDay()).thenReturn(day);
+        when(row.getStatus()).thenReturn(SaleStatus.COMPLETED);
+        when(row.getSalesRepId()).thenReturn(7L);
+        when(row.getSaleCount()).thenReturn(count);
+        when(row.getRevenue()).thenReturn(new BigDecimal(revenue));
+        return row;
+    }
+}
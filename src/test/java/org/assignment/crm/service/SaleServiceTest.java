@@ -1,10 +1,16 @@
 package org.assignment.crm.service;
 
+import org.assignment.crm.dto.KeysetPage;
+import org.assignment.crm.dto.KeysetPageRequest;
+import org.assignment.crm.dto.SaleSummary;
 import org.assignment.crm.entity.Customer;
 import org.assignment.crm.entity.Sale;
 import org.assignment.crm.entity.User;
 import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
 import org.assignment.crm.exception.CustomerNotFound;
+import org.assignment.crm.exception.InvalidBulkRequest;
+import org.assignment.crm.exception.InvalidPageRequest;
 import org.assignment.crm.exception.SaleNotFound;
 import org.assignment.crm.exception.UserNotFound;
 import org.assignment.crm.repository.CustomerRepository;
@@ -15,14 +21,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +50,9 @@ class SaleServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SaleService saleService;
 
@@ -69,6 +85,45 @@ class SaleServiceTest {
         verify(saleRepository).save(any(Sale.class));
     }
 
+    @Test
+    void addSales_resolvesPartiesOnceAndSavesInOneCall() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setTotalPurchaseValue(new BigDecimal("10.00"));
+        User rep = new User();
+        rep.setId(3L);
+        List<Sale> input = List.of(bulkSale(1L, 3L, "100.00"), bulkSale(1L, 3L, "50.00"));
+
+        when(customerRepository.findAllById(Set.of(1L))).thenReturn(List.of(customer));
+        when(userRepository.findAllById(Set.of(3L))).thenReturn(List.of(rep));
+        when(saleRepository.saveAll(input)).thenReturn(input);
+
+        List<Sale> result = saleService.addSales(input);
+
+        assertThat(result).allSatisfy(sale -> {
+            assertThat(sale.getCustomer()).isSameAs(customer);
+            assertThat(sale.getSalesRep()).isSameAs(rep);
+            assertThat(sale.getStatus()).isEqualTo(SaleStatus.COMPLETED);
+        });
+        assertThat(customer.getTotalPurchaseValue()).isEqualByComparingTo("160.00");
+        verify(saleRepository, never()).save(any(Sale.class));
+        verify(eventPublisher, times(2)).publishEvent(any(SaleChangedEvent.class));
+    }
+
+    @Test
+    void addSales_rejectsUnknownPartiesAndOversizedRequests() {
+        when(customerRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+        when(userRepository.findAllById(Set.of(3L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> saleService.addSales(List.of(bulkSale(1L, 3L, "100.00"))))
+                .isInstanceOf(CustomerNotFound.class);
+
+        ReflectionTestUtils.setField(saleService, "bulkMaxSize", 1);
+        assertThatThrownBy(() -> saleService.addSales(List.of(bulkSale(1L, 3L, "1.00"), bulkSale(1L, 3L, "2.00"))))
+                .isInstanceOf(InvalidBulkRequest.class);
+        verify(saleRepository, never()).saveAll(any());
+    }
+
     @Test
     void getSaleById_whenMissing_throws() {
         when(saleRepository.findById(2L)).thenReturn(Optional.empty());
@@ -126,14 +181,14 @@ class SaleServiceTest {
     @Test
     void getSaleByRepId_whenRepMissing_throws() {
         when(userRepository.findById(9L)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> saleService.getSaleByRepId(9L))
+        assertThatThrownBy(() -> saleService.getSaleByRepId(9L, KeysetPageRequest.first(10)))
                 .isInstanceOf(UserNotFound.class);
     }
 
     @Test
     void getSaleByCustomerId_whenCustomerMissing_throws() {
         when(customerRepository.findById(7L)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> saleService.getSaleByCustomerId(7L))
+        assertThatThrownBy(() -> saleService.getSaleByCustomerId(7L, KeysetPageRequest.first(10)))
                 .isInstanceOf(CustomerNotFound.class);
     }
 
@@ -151,4 +206,69 @@ class SaleServiceTest {
         when(saleRepository.findById(1L)).thenReturn(Optional.of(s));
         assertThat(saleService.markSaleAsPending(1L).getStatus()).isEqualTo(SaleStatus.PENDING);
     }
+
+    @Test
+    void countCustomersWithSalesSince_usesSingleDistinctQuery() {
+        LocalDateTime since = LocalDateTime.now().minusMonths(3);
+        when(saleRepository.countDistinctCustomersWithSaleAfter(since)).thenReturn(4L);
+
+        assertThat(saleService.countCustomersWithSalesSince(since)).isEqualTo(4L);
+        verify(saleRepository).countDistinctCustomersWithSaleAfter(since);
+        verifyNoMoreInteractions(saleRepository);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void getAllSales_returnsLimitRowsAndACursorThatResumesAfterTheLast() {
+        when(saleRepository.findSummariesAfter(0L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(sale(1L), sale(2L), sale(5L)));
+
+        KeysetPage<SaleSummary> first = saleService.getAllSales(KeysetPageRequest.first(2));
+
+        assertThat(first.items()).extracting(SaleSummary::id).containsExactly(1L, 2L);
+        assertThat(first.hasNext()).isTrue();
+
+        KeysetPageRequest next = KeysetPageRequest.of(first.nextCursor(), 2);
+        assertThat(next.afterId()).isEqualTo(2L);
+        when(saleRepository.findSummariesAfter(2L, PageRequest.ofSize(3))).thenReturn(List.of(sale(5L)));
+
+        KeysetPage<SaleSummary> last = saleService.getAllSales(next);
+
+        assertThat(last.items()).extracting(SaleSummary::id).containsExactly(5L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void keysetPageRequest_rejectsBadLimitsAndCursors() {
+        assertThatThrownBy(() -> KeysetPageRequest.of(null, 0)).isInstanceOf(InvalidPageRequest.class);
+        assertThatThrownBy(() -> KeysetPageRequest.of(null, KeysetPageRequest.MAX_LIMIT + 1)).isInstanceOf(InvalidPageRequest.class);
+        assertThatThrownBy(() -> KeysetPageRequest.of("not-a-cursor!", 10)).isInstanceOf(InvalidPageRequest.class);
+        assertThat(KeysetPageRequest.of("", 10).isFirstPage()).isTrue();
+    }
+
+    @Test
+    void getCompletedSales_onlyAnEmptyFirstPageIsNotFound() {
+        when(saleRepository.findSummariesByStatusAfter(eq(SaleStatus.COMPLETED), anyLong(), any()))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> saleService.getCompletedSales(KeysetPageRequest.first(10)))
+                .isInstanceOf(SaleNotFound.class);
+        assertThat(saleService.getCompletedSales(new KeysetPageRequest(40L, 10)).items()).isEmpty();
+    }
+
+    private static Sale bulkSale(long customerId, long repId, String amount) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        User rep = new User();
+        rep.setId(repId);
+        Sale sale = new Sale();
+        sale.setAmount(new BigDecimal(amount));
+        sale.setCustomer(customer);
+        sale.setSalesRep(rep);
+        return sale;
+    }
+
+    private static SaleSummary sale(long id) {
+        return new SaleSummary(id, BigDecimal.TEN, LocalDateTime.now(), SaleStatus.COMPLETED, null, 7L, "Ada Lovelace", 9L, "Sam Rep");
+    }
 }
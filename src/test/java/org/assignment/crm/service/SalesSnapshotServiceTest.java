@@ -0,0 +1,131 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.CustomerRevenueRow;
+import org.assignment.crm.dto.SaleColumnRow;
+import org.assignment.crm.dto.SalesRepRevenueRow;
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.enums.SaleStatus;
+import org.assignment.crm.event.SaleChangedEvent;
+import org.assignment.crm.event.SaleSnapshot;
+import org.assignment.crm.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesSnapshotServiceTest {
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SalesSnapshotService salesSnapshotService;
+
+    @Test
+    void rebuild_loadsColumnsAndAnswersMonthlyTrend() {
+        List<SaleColumnRow> rows = List.of(
+                row(1L, "30.00", LocalDateTime.of(2024, 1, 10, 9, 0), SaleStatus.COMPLETED),
+                row(2L, "10.00", LocalDateTime.of(2025, 1, 5, 9, 0), SaleStatus.COMPLETED),
+                row(3L, "60.50", LocalDateTime.of(2025, 1, 20, 9, 0), null),
+                row(4L, "5.00", null, SaleStatus.PENDING));
+        when(saleRepository.streamColumnRows()).thenReturn(rows.stream());
+
+        assertThat(salesSnapshotService.isReady()).isFalse();
+        assertThat(salesSnapshotService.rebuild()).isEqualTo(3);
+        assertThat(salesSnapshotService.isReady()).isTrue();
+
+        List<SalesTrendRow> trend = salesSnapshotService.getTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 20), null);
+
+        assertThat(trend).hasSize(1);
+        assertThat(trend.get(0).getPeriodStart()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(trend.get(0).getStatus()).isEqualTo(SaleStatus.COMPLETED);
+        assertThat(trend.get(0).getSaleCount()).isEqualTo(2L);
+        assertThat(trend.get(0).getRevenue()).isEqualTo(new BigDecimal("70.50"));
+    }
+
+    @Test
+    void onSaleChanged_appliesCreatesUpdatesAndDeletes() {
+        when(saleRepository.streamColumnRows()).thenReturn(Stream.empty());
+        salesSnapshotService.rebuild();
+
+        SaleSnapshot small = snapshot(1L, "20", LocalDateTime.of(2025, 2, 1, 8, 0));
+        SaleSnapshot large = snapshot(2L, "90", LocalDateTime.of(2025, 2, 3, 8, 0));
+        salesSnapshotService.onSaleChanged(SaleChangedEvent.created(small));
+        salesSnapshotService.onSaleChanged(SaleChangedEvent.created(large));
+        salesSnapshotService.onSaleChanged(SaleChangedEvent.updated(small, snapshot(1L, "120", small.saleDate())));
+
+        assertThat(salesSnapshotService.getTopSaleIds(5, null, null)).containsExactly(1L, 2L);
+        assertThat(salesSnapshotService.getTopSaleIds(5, LocalDate.of(2025, 2, 2), null)).containsExactly(2L);
+
+        salesSnapshotService.onSaleChanged(SaleChangedEvent.deleted(large));
+
+        assertThat(salesSnapshotService.getTopSaleIds(5, null, null)).containsExactly(1L);
+        assertThat(salesSnapshotService.getTrend(RollupGranularity.DAY, null, null))
+                .extracting(SalesTrendRow::getRevenue)
+                .containsExactly(new BigDecimal("120.00"));
+    }
+
+    @Test
+    void getRevenueBySalesRep_groupsLoadedAndReplayedSales() {
+        List<SaleColumnRow> rows = List.of(
+                row(1L, "30.00", LocalDateTime.of(2025, 1, 10, 9, 0), 7L, 4L, SaleStatus.COMPLETED),
+                row(2L, "10.00", LocalDateTime.of(2025, 1, 12, 9, 0), 8L, 4L, SaleStatus.COMPLETED),
+                row(3L, "60.50", LocalDateTime.of(2025, 3, 1, 9, 0), 7L, null, SaleStatus.PENDING),
+                row(4L, "5.00", LocalDateTime.of(2025, 1, 11, 9, 0), null, 5L, SaleStatus.COMPLETED));
+        when(saleRepository.streamColumnRows()).thenReturn(rows.stream());
+        salesSnapshotService.rebuild();
+
+        salesSnapshotService.onSaleChanged(SaleChangedEvent.created(
+                new SaleSnapshot(5L, 5L, 8L, new BigDecimal("15"), LocalDateTime.of(2025, 1, 20, 8, 0), SaleStatus.COMPLETED)));
+
+        List<SalesRepRevenueRow> byRep = salesSnapshotService.getRevenueBySalesRep(null, LocalDate.of(2025, 1, 31));
+
+        assertThat(byRep).extracting(SalesRepRevenueRow::getSalesRepId).containsExactly(7L, 8L);
+        assertThat(byRep).extracting(SalesRepRevenueRow::getSaleCount).containsExactly(1L, 2L);
+        assertThat(byRep).extracting(SalesRepRevenueRow::getRevenue)
+                .containsExactly(new BigDecimal("30.00"), new BigDecimal("25.00"));
+        assertThat(salesSnapshotService.getRevenueByCustomer(null, null))
+                .extracting(CustomerRevenueRow::getCustomerId, CustomerRevenueRow::getRevenue)
+                .containsExactly(tuple(4L, new BigDecimal("40.00")), tuple(5L, new BigDecimal("20.00")));
+    }
+
+    private SaleColumnRow row(Long id, String amount, LocalDateTime saleDate, SaleStatus status) {
+        return row(id, amount, saleDate, 3L, 4L, status);
+    }
+
+    private SaleColumnRow row(Long id, String amount, LocalDateTime saleDate, Long salesRepId, Long customerId,
+                              SaleStatus status) {
+        SaleColumnRow row = mock(SaleColumnRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getAmount()).thenReturn(new BigDecimal(amount));
+        when(row.getSaleDate()).thenReturn(saleDate);
+        if (saleDate != null) {
+            when(row.getSalesRepId()).thenReturn(salesRepId);
+            when(row.getCustomerId()).thenReturn(customerId);
+            when(row.getStatus()).thenReturn(status);
+        }
+        return row;
+    }
+
+    private SaleSnapshot snapshot(Long id, String amount, LocalDateTime saleDate) {
+        return new SaleSnapshot(id, 4L, 3L, new BigDecimal(amount), saleDate, SaleStatus.COMPLETED);
+    }
+}
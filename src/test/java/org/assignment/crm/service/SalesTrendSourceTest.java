@@ -0,0 +1,50 @@
+package org.assignment.crm.service;
+
+import org.assignment.crm.dto.SalesTrendRow;
+import org.assignment.crm.enums.RollupGranularity;
+import org.assignment.crm.repository.SaleRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesTrendSourceTest {
+
+    @Mock
+    private SalesSnapshotService salesSnapshotService;
+
+    @Mock
+    private SaleRollupRepository saleRollupRepository;
+
+    @InjectMocks
+    private SalesTrendSource salesTrendSource;
+
+    @Test
+    void readsTheSnapshotOnceItHasLoaded() {
+        SalesTrendRow row = mock(SalesTrendRow.class);
+        when(salesSnapshotService.isReady()).thenReturn(true);
+        when(salesSnapshotService.getTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 15), null)).thenReturn(List.of(row));
+
+        assertThat(salesTrendSource.streamTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 15), null)).containsExactly(row);
+        verifyNoInteractions(saleRollupRepository);
+    }
+
+    @Test
+    void fallsBackToRollupsAlignedToThePeriodStartUntilThen() {
+        when(saleRollupRepository.streamTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)))
+                .thenReturn(Stream.empty());
+
+        assertThat(salesTrendSource.streamTrend(RollupGranularity.MONTH, LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 31)))
+                .isEmpty();
+        verify(salesSnapshotService, never()).getTrend(any(), any(), any());
+    }
+}
@@ -3,21 +3,26 @@ package org.assignment.crm.service;
 import org.assignment.crm.entity.User;
 import org.assignment.crm.enums.UserRole;
 import org.assignment.crm.enums.UserStatus;
+import org.assignment.crm.exception.ManagerCycleDetected;
 import org.assignment.crm.exception.UserNameExists;
 import org.assignment.crm.exception.UserNotFound;
 import org.assignment.crm.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +35,12 @@ class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrgHierarchyService orgHierarchyService;
+
     @InjectMocks
     private UserService userService;
 
@@ -163,4 +174,61 @@ class UserServiceTest {
 
         verify(userRepository).deleteById(5L);
     }
+
+    @Test
+    void setManager_whenManagerReportsToTheUser_throwsAndDoesNotSave() {
+        User director = new User();
+        director.setId(1L);
+        director.setRole(UserRole.MANAGER);
+        User teamLead = new User();
+        teamLead.setId(3L);
+        teamLead.setRole(UserRole.MANAGER);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(director));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(teamLead));
+        when(userRepository.lockManagerIdOf(1L)).thenReturn(null);
+        when(userRepository.lockManagerIdOf(3L)).thenReturn(2L);
+        when(userRepository.lockManagerIdOf(2L)).thenReturn(1L);
+
+        assertThatThrownBy(() -> userService.setManager(1L, 3L))
+                .isInstanceOf(ManagerCycleDetected.class);
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(eventPublisher, orgHierarchyService);
+    }
+
+    @Test
+    void setManager_locksBothRowsInIdOrderBeforeWalkingTheChain() {
+        User rep = new User();
+        rep.setId(5L);
+        rep.setRole(UserRole.SALES_REP);
+        User manager = new User();
+        manager.setId(2L);
+        manager.setRole(UserRole.MANAGER);
+
+        when(userRepository.findById(5L)).thenReturn(Optional.of(rep));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(manager));
+        when(userRepository.lockManagerIdOf(2L)).thenReturn(1L);
+        when(userRepository.lockManagerIdOf(5L)).thenReturn(null);
+        when(userRepository.lockManagerIdOf(1L)).thenReturn(null);
+        when(userRepository.save(rep)).thenReturn(rep);
+
+        assertThat(userService.setManager(5L, 2L).getManager()).isSameAs(manager);
+
+        InOrder locks = inOrder(userRepository);
+        locks.verify(userRepository).lockManagerIdOf(2L);
+        locks.verify(userRepository).lockManagerIdOf(5L);
+        locks.verify(userRepository).lockManagerIdOf(1L);
+        locks.verify(userRepository).save(rep);
+    }
+
+    @Test
+    void findSubordinates_loadsTheWholeSubtreeInOneQuery() {
+        List<Long> subordinateIds = List.of(2L, 3L, 4L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(orgHierarchyService.getSubordinateIds(1L)).thenReturn(subordinateIds);
+        when(userRepository.findAllById(subordinateIds)).thenReturn(List.of(new User(), new User(), new User()));
+
+        assertThat(userService.findSubordinates(1L)).hasSize(3);
+        verify(userRepository, never()).findUserByManager_Id(anyLong());
+    }
 }
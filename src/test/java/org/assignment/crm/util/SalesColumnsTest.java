@@ -0,0 +1,156 @@
+package org.assignment.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesColumnsTest {
+
+    private static final int STATUSES = 3;
+
+    @Test
+    void upsertAndRemove_keepRowsAddressableAfterSwapRemove() {
+        SalesColumns columns = new SalesColumns(STATUSES);
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        columns.upsert(1, 100, day, 7, 10, 0);
+        columns.upsert(2, 200, day, 7, 11, 1);
+        columns.upsert(3, 300, day, 8, SalesColumns.NO_ID, 2);
+
+        assertThat(columns.remove(1)).isTrue();
+        assertThat(columns.remove(1)).isFalse();
+        columns.upsert(3, 350, day, 8, 10, 2);
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.topSaleIdsByAmount(5, SalesColumns.ALL_DAYS_FROM, SalesColumns.ALL_DAYS_TO)).containsExactly(3, 2);
+        assertThat(toMap(columns.groupByPeriodAndStatus(SalesColumns.ALL_DAYS_FROM, SalesColumns.ALL_DAYS_TO, false)))
+                .isEqualTo(Map.of(day + "/1", List.of(1L, 200L), day + "/2", List.of(1L, 350L)));
+        assertThat(columns.groupBySalesRep(SalesColumns.ALL_DAYS_FROM, SalesColumns.ALL_DAYS_TO)).containsExactly(
+                new SalesColumns.IdBucket(7, 1, 200), new SalesColumns.IdBucket(8, 1, 350));
+        assertThat(columns.groupByCustomer(SalesColumns.ALL_DAYS_FROM, SalesColumns.ALL_DAYS_TO)).containsExactly(
+                new SalesColumns.IdBucket(10, 1, 350), new SalesColumns.IdBucket(11, 1, 200));
+    }
+
+    @Test
+    void saleIdIndex_tracksRowsThroughGrowthAndRemovals() {
+        Random random = new Random(5);
+        SalesColumns columns = new SalesColumns(STATUSES);
+        Map<Long, Long> expected = new HashMap<>();
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(6_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(columns.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                long cents = random.nextInt(1_000_000);
+                columns.upsert(id, cents, day, SalesColumns.NO_ID, SalesColumns.NO_ID, 0);
+                expected.put(id, cents);
+            }
+        }
+
+        assertThat(columns.size()).isEqualTo(expected.size());
+        long[] all = columns.topSaleIdsByAmount(expected.size(), SalesColumns.ALL_DAYS_FROM, SalesColumns.ALL_DAYS_TO);
+        assertThat(Arrays.stream(all).boxed().toList()).containsExactlyInAnyOrderElementsOf(expected.keySet());
+        for (long id : all) {
+            assertThat(columns.remove(id)).isTrue();
+        }
+        assertThat(columns.size()).isZero();
+    }
+
+    @Test
+    void toCents_roundsToTwoDecimals() {
+        assertThat(SalesColumns.toCents(new BigDecimal("12.345"))).isEqualTo(1235);
+        assertThat(SalesColumns.fromCents(1235)).isEqualTo(new BigDecimal("12.35"));
+    }
+
+    @Test
+    void aggregates_matchNaiveComputationOverRandomSales() {
+        Random random = new Random(11);
+        SalesColumns columns = new SalesColumns(STATUSES);
+        Map<Long, Object[]> sales = new HashMap<>();
+        LocalDate base = LocalDate.of(2023, 11, 1);
+        for (long id = 1; id <= 5_000; id++) {
+            long cents = random.nextInt(1_000_000);
+            LocalDate day = base.plusDays(random.nextInt(500));
+            int status = random.nextInt(STATUSES);
+            long repId = random.nextInt(6);
+            columns.upsert(id, cents, day, repId, 1 + random.nextInt(50), status);
+            sales.put(id, new Object[]{cents, day, status, repId});
+        }
+        for (long id = 1; id <= 5_000; id += 3) {
+            columns.remove(id);
+            sales.remove(id);
+        }
+
+        LocalDate from = base.plusDays(40);
+        LocalDate to = base.plusDays(300);
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+
+        Map<String, long[]> expectedMonthly = new TreeMap<>();
+        Map<String, long[]> expectedDaily = new TreeMap<>();
+        Map<Long, long[]> expectedByRep = new TreeMap<>();
+        List<Map.Entry<Long, Long>> inRange = new ArrayList<>();
+        sales.forEach((id, sale) -> {
+            LocalDate day = (LocalDate) sale[1];
+            if (day.isBefore(from) || day.isAfter(to)) {
+                return;
+            }
+            long cents = (long) sale[0];
+            int status = (int) sale[2];
+            accumulate(expectedMonthly, YearMonth.from(day).atDay(1) + "/" + status, cents);
+            accumulate(expectedDaily, day + "/" + status, cents);
+            long repId = (long) sale[3];
+            if (repId != SalesColumns.NO_ID) {
+                long[] bucket = expectedByRep.computeIfAbsent(repId, ignored -> new long[2]);
+                bucket[0]++;
+                bucket[1] += cents;
+            }
+            inRange.add(Map.entry(id, cents));
+        });
+
+        assertThat(toMap(columns.groupByPeriodAndStatus(fromDay, toDay, true))).isEqualTo(toLists(expectedMonthly));
+        assertThat(toMap(columns.groupByPeriodAndStatus(fromDay, toDay, false))).isEqualTo(toLists(expectedDaily));
+        assertThat(columns.groupBySalesRep(fromDay, toDay)).isEqualTo(expectedByRep.entrySet().stream()
+                .map(entry -> new SalesColumns.IdBucket(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .toList());
+
+        long[] top = columns.topSaleIdsByAmount(10, fromDay, toDay);
+        List<Long> expectedTopAmounts = inRange.stream().map(Map.Entry::getValue)
+                .sorted(Comparator.reverseOrder()).limit(10).toList();
+        assertThat(Arrays.stream(top).mapToObj(id -> (Long) sales.get(id)[0]).toList())
+                .isEqualTo(expectedTopAmounts);
+    }
+
+    private static void accumulate(Map<String, long[]> totals, String key, long cents) {
+        long[] bucket = totals.computeIfAbsent(key, ignored -> new long[2]);
+        bucket[0]++;
+        bucket[1] += cents;
+    }
+
+    private static Map<String, List<Long>> toLists(Map<String, long[]> totals) {
+        Map<String, List<Long>> result = new TreeMap<>();
+        totals.forEach((key, bucket) -> result.put(key, List.of(bucket[0], bucket[1])));
+        return result;
+    }
+
+    private static Map<String, List<Long>> toMap(List<SalesColumns.PeriodBucket> buckets) {
+        Map<String, List<Long>> result = new TreeMap<>();
+        for (SalesColumns.PeriodBucket bucket : buckets) {
+            result.put(LocalDate.ofEpochDay(bucket.periodStartEpochDay()) + "/" + bucket.status(),
+                    List.of(bucket.count(), bucket.revenueCents()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package org.assignment.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void select_returnsGreatestItemsInDescendingOrder() {
+        List<Integer> values = List.of(5, 1, 9, 3, 7, 9, 2);
+
+        assertThat(TopK.select(values, 3, Comparator.naturalOrder())).containsExactly(9, 9, 7);
+    }
+
+    @Test
+    void select_handlesFewerItemsThanKAndNonPositiveK() {
+        assertThat(TopK.select(List.of(2, 1), 5, Comparator.<Integer>naturalOrder())).containsExactly(2, 1);
+        assertThat(TopK.select(List.of(2, 1), 0, Comparator.<Integer>naturalOrder())).isEmpty();
+    }
+
+    @Test
+    void select_matchesFullSort() {
+        Random random = new Random(7);
+        List<Integer> values = IntStream.range(0, 10_000).map(i -> random.nextInt(1_000_000)).boxed().toList();
+
+        List<Integer> expected = values.stream().sorted(Comparator.reverseOrder()).limit(10).toList();
+
+        assertThat(TopK.select(values, 10, Comparator.naturalOrder())).isEqualTo(expected);
+    }
+}